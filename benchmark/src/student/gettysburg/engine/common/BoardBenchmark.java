@@ -0,0 +1,63 @@
+package student.gettysburg.engine.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board queries on a mid-game position with both armies' reinforcements on the map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"25"})
+    public int turn;
+
+    private Board board;
+    private List<Unit> units;
+    private Unit mover;
+    private Cell destination;
+
+    @Setup
+    public void setUp() {
+        Game game = Playouts.playToTurn(turn, 1);
+        board = game.board;
+        units = Playouts.getUnits(game, gettysburg.common.ArmyID.UNION);
+        units.addAll(Playouts.getUnits(game, gettysburg.common.ArmyID.CONFEDERATE));
+        // the longest search: the fastest unit to its farthest destination
+        mover = units.stream()
+                .max(Comparator.comparingInt(Unit::getMovementFactor))
+                .orElseThrow(IllegalStateException::new);
+        Cell origin = board.getUnitPosition(mover);
+        BitSet reachable = board.getReachableCells(mover);
+        destination = reachable.stream()
+                .mapToObj(Cell::fromIndex)
+                .max(Comparator.comparingInt(origin::distanceTo))
+                .orElse(origin);
+    }
+
+    @Benchmark
+    public boolean pathFinderFind() {
+        return board.hasPath(mover, destination, mover.getMovementFactor());
+    }
+
+    @Benchmark
+    public long unitsInBattlePositions() {
+        return board.getUnitsInBattlePositions().count();
+    }
+
+    @Benchmark
+    public void retreatableSquares(Blackhole blackhole) {
+        for (Unit unit : units)
+            blackhole.consume(board.getRetreatableSquares(unit).count());
+    }
+}
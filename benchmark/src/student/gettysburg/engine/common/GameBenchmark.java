@@ -0,0 +1,121 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleDescriptor;
+import gettysburg.common.GbgUnit;
+import gettysburg.common.exceptions.GbgInvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static student.gettysburg.engine.common.Cell.makeCell;
+import static student.gettysburg.engine.utility.configure.BattleOrder.getUnionBattleOrder;
+
+/**
+ * Game level operations: finding the battles of a battle step, listing the legal
+ * actions of a move step, rejecting a move with and without an exception, forking a
+ * position from a snapshot, trying a step and taking it back, and playing whole games,
+ * both through the public interface and with the reusable simulator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    private Game battleGame;
+    private Game searchGame;
+    private GameSnapshot snapshot;
+    private Game moveGame;
+    private Actions actions;
+    private GbgUnit gamble;
+    private Random random;
+    private GameSimulator simulator;
+    private SimulationResults results;
+
+    @Setup
+    public void setUp() {
+        battleGame = Playouts.playToBattle(10, 1);
+        searchGame = new Game();
+        snapshot = battleGame.snapshot();
+        // the move step after a mid-game battle step
+        moveGame = Playouts.playToBattle(10, 1);
+        Playouts.playStep(moveGame, new Random(1));
+        actions = new Actions();
+        gamble = getUnionBattleOrder()[0].getUnit();
+        random = new Random(1);
+        MovePolicy moves = RandomMovePolicy.makeRandomMovePolicy(new SplittableRandom(1));
+        simulator = GameSimulator.makeGameSimulator(moves, BattlePolicy.makeResolveAllPolicy(),
+                moves, BattlePolicy.makeResolveAllPolicy());
+        results = new SimulationResults();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Game newGame() {
+        return new Game();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Collection<BattleDescriptor> getBattlesToResolve() {
+        return battleGame.getBattlesToResolve();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int generateActions() {
+        return moveGame.generateActions(actions);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public MoveStatus tryMoveTooFar() {
+        return searchGame.tryMoveUnit(gamble, makeCell(11, 11), makeCell(11, 16));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String moveTooFar() {
+        try {
+            searchGame.moveUnit(gamble, makeCell(11, 11), makeCell(11, 16));
+            return null;
+        } catch (GbgInvalidMoveException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Game restoreSnapshot() {
+        searchGame.restore(snapshot);
+        return searchGame;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Game playStepAndUndo() {
+        int checkpoint = searchGame.checkpoint();
+        Playouts.playStep(searchGame, random);
+        searchGame.undo(checkpoint);
+        return searchGame;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Game playout() {
+        Game game = new Game();
+        Playouts.playGame(game, random);
+        return game;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SimulationResults simulatedGame() {
+        simulator.playGame(results);
+        return results;
+    }
+}
@@ -0,0 +1,110 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.ArmyID;
+import gettysburg.common.BattleDescriptor;
+import gettysburg.common.GbgGameStep;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static gettysburg.common.GbgGameStatus.IN_PROGRESS;
+import static gettysburg.common.GbgGameStep.CMOVE;
+import static gettysburg.common.GbgGameStep.UBATTLE;
+import static gettysburg.common.GbgGameStep.UMOVE;
+
+/**
+ * Builds realistic board states for the benchmarks by playing the order of battle
+ * with seeded random moves, facings and full battle resolution.
+ */
+class Playouts {
+
+    private static final gettysburg.common.Direction[] FACINGS = Direction.all()
+            .map(Direction::getOriginal)
+            .toArray(gettysburg.common.Direction[]::new);
+
+    private Playouts() {
+    }
+
+    /**
+     * @return a game at the start of the given turn
+     */
+    static Game playToTurn(int turn, long seed) {
+        Game game = new Game();
+        Random random = new Random(seed);
+        while (game.getTurnNumber() < turn && game.getGameStatus() == IN_PROGRESS)
+            playStep(game, random);
+        return game;
+    }
+
+    /**
+     * @return a game in a battle step with at least one battle to resolve, on or after the given turn
+     */
+    static Game playToBattle(int turn, long seed) {
+        for (long attempt = seed; ; attempt++) {
+            Game game = new Game();
+            Random random = new Random(attempt);
+            while (game.getGameStatus() == IN_PROGRESS) {
+                if (game.getTurnNumber() >= turn && !isMoveStep(game.getCurrentStep())
+                        && !game.getBattlesToResolve().isEmpty())
+                    return game;
+                playStep(game, random);
+            }
+        }
+    }
+
+    static void playGame(Game game, Random random) {
+        while (game.getGameStatus() == IN_PROGRESS)
+            playStep(game, random);
+    }
+
+    static void playStep(Game game, Random random) {
+        if (isMoveStep(game.getCurrentStep()))
+            moveUnits(game, random);
+        else
+            resolveBattles(game);
+        game.endStep();
+    }
+
+    static List<Unit> getUnits(Game game, ArmyID armyID) {
+        return game.board.getUnits().stream()
+                .filter(unit -> unit.getArmy() == armyID)
+                .collect(Collectors.toList());
+    }
+
+    private static void moveUnits(Game game, Random random) {
+        for (Unit unit : getUnits(game, getArmy(game.getCurrentStep()))) {
+            BitSet reachable = game.getReachableSquares(unit);
+            if (!reachable.isEmpty())
+                game.moveUnit(unit, game.whereIsUnit(unit), Cell.fromIndex(pick(reachable, random)));
+            game.setUnitFacing(unit, FACINGS[random.nextInt(FACINGS.length)]);
+        }
+    }
+
+    private static void resolveBattles(Game game) {
+        Collection<BattleDescriptor> battles = game.getBattlesToResolve();
+        while (!battles.isEmpty()) {
+            game.resolveBattle(battles.iterator().next());
+            battles = game.getBattlesToResolve();
+        }
+    }
+
+    private static int pick(BitSet cells, Random random) {
+        int index = cells.nextSetBit(0);
+        for (int skip = random.nextInt(cells.cardinality()); skip > 0; skip--)
+            index = cells.nextSetBit(index + 1);
+        return index;
+    }
+
+    private static boolean isMoveStep(GbgGameStep step) {
+        return step == UMOVE || step == CMOVE;
+    }
+
+    private static ArmyID getArmy(GbgGameStep step) {
+        return step == UMOVE || step == UBATTLE ? UNION : CONFEDERATE;
+    }
+}
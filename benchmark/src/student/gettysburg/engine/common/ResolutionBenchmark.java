@@ -0,0 +1,37 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleDescriptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the first battle of a mid-game battle step, including the die roll.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolutionBenchmark {
+
+    private BattleDescriptor battle;
+    private DiceSource dice;
+
+    @Setup
+    public void setUp() {
+        battle = Playouts.playToBattle(10, 1).getBattlesToResolve().iterator().next();
+        dice = SplitMixDice.makeSplitMixDice(1);
+    }
+
+    @Benchmark
+    public Resolution makeResolution() {
+        return Resolution.makeResolution(battle);
+    }
+
+    @Benchmark
+    public Resolution makeResolutionSplitMixDice() {
+        return Resolution.makeResolution(battle, dice);
+    }
+}
@@ -15,6 +15,7 @@ import gettysburg.common.Coordinate;
 import gettysburg.common.GbgGame;
 import gettysburg.common.TestGbgGame;
 import student.gettysburg.engine.common.Cell;
+import student.gettysburg.engine.common.DiceSource;
 import student.gettysburg.engine.common.Game;
 import student.gettysburg.engine.common.TestGame;
 
@@ -32,6 +33,16 @@ public final class GettysburgFactory {
 		return new Game();
 	}
 
+	/**
+	 * Creation method for a game whose battles are decided by the given dice,
+	 * e.g. a seeded SplitMixDice to replay a game exactly.
+	 * @param dice the source of every battle die roll
+	 * @return a new Gettysburg game
+	 */
+	public static GbgGame makeGame(DiceSource dice) {
+		return new Game(dice);
+	}
+
 	/**
 	 * Creation method for a test Gettysburg game
 	 * @return the TestGbgGame instance
@@ -0,0 +1,138 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleDescriptor;
+import gettysburg.common.Coordinate;
+import gettysburg.common.GbgUnit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static student.gettysburg.engine.common.Battle.makeBattle;
+
+/**
+ * A reusable buffer of the actions a player may take, filled by Game.generateActions.
+ * Actions are held as ints, and the buffer only grows, so a caller that keeps one buffer
+ * stops allocating once it is big enough. Units, squares and battles are looked up
+ * on request and are valid until the game changes.
+ */
+public final class Actions {
+
+    /** Move a unit to a square. */
+    public static final int MOVE = 0;
+    /** Turn a unit to face a direction. */
+    public static final int FACE = 1;
+    /** Resolve a battle between some attackers and defenders. */
+    public static final int BATTLE = 2;
+
+    private int[] kinds = new int[64];
+    // unit id for moves and turns, unused for battles
+    private int[] units = new int[64];
+    // cell index for moves, Direction ordinal for turns, offset into battleUnits for battles
+    private int[] targets = new int[64];
+    // for each battle its attacker count, its defender count, then the ids of both
+    private int[] battleUnits = new int[64];
+    private int size;
+    private int battleUnitsSize;
+    private Board board;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return MOVE, FACE or BATTLE
+     */
+    public int getKind(int action) {
+        return kinds[action];
+    }
+
+    /**
+     * @return the unit to move or turn
+     */
+    public GbgUnit getUnit(int action) {
+        return board.getUnit(units[action]);
+    }
+
+    /**
+     * @return the square to move to, by Cell.index()
+     */
+    public int getCellIndex(int action) {
+        return targets[action];
+    }
+
+    /**
+     * @return the square to move to
+     */
+    public Coordinate getTo(int action) {
+        return Cell.fromIndex(targets[action]);
+    }
+
+    /**
+     * @return the direction to turn to
+     */
+    public gettysburg.common.Direction getFacing(int action) {
+        return Direction.fromOrdinal(targets[action]).getOriginal();
+    }
+
+    /**
+     * @return the battle to resolve, made on each call
+     */
+    public BattleDescriptor getBattle(int action) {
+        int offset = targets[action];
+        int attackers = battleUnits[offset];
+        int defenders = battleUnits[offset + 1];
+        return makeBattle(getUnits(offset + 2, attackers), getUnits(offset + 2 + attackers, defenders));
+    }
+
+    private List<GbgUnit> getUnits(int offset, int count) {
+        List<GbgUnit> list = new ArrayList<>(count);
+        for (int i = offset; i < offset + count; i++)
+            list.add(board.getUnit(battleUnits[i]));
+        return list;
+    }
+
+    void clear(Board board) {
+        this.board = board;
+        size = 0;
+        battleUnitsSize = 0;
+    }
+
+    void addMove(int id, int index) {
+        add(MOVE, id, index);
+    }
+
+    /**
+     * Adds a turn to every compass direction.
+     */
+    void addFacings(int id) {
+        for (Direction facing : Direction.compass())
+            add(FACE, id, facing.ordinal());
+    }
+
+    void addBattle(Collection<? extends GbgUnit> attackers, Collection<? extends GbgUnit> defenders) {
+        int offset = battleUnitsSize;
+        int length = offset + 2 + attackers.size() + defenders.size();
+        if (length > battleUnits.length)
+            battleUnits = Arrays.copyOf(battleUnits, Math.max(length, battleUnits.length * 2));
+        battleUnits[battleUnitsSize++] = attackers.size();
+        battleUnits[battleUnitsSize++] = defenders.size();
+        for (GbgUnit unit : attackers)
+            battleUnits[battleUnitsSize++] = UnitIds.find(unit);
+        for (GbgUnit unit : defenders)
+            battleUnits[battleUnitsSize++] = UnitIds.find(unit);
+        add(BATTLE, -1, offset);
+    }
+
+    private void add(int kind, int unit, int target) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            units = Arrays.copyOf(units, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+        }
+        kinds[size] = kind;
+        units[size] = unit;
+        targets[size++] = target;
+    }
+}
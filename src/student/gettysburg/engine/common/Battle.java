@@ -9,27 +9,31 @@ import java.util.Collection;
 import static gettysburg.common.ArmyID.UNION;
 import static java.util.Collections.emptyList;
 
+/**
+ * A battle with its combat factors summed once, as ints. The units stay the collections
+ * of the descriptor it was made from: descriptors come from clients, hold any GbgUnit
+ * whether or not it has an id, and are handed back through getAttackers/getDefenders.
+ */
 class Battle implements BattleDescriptor {
 
-
     private final Collection<GbgUnit> attackers;
     private final Collection<GbgUnit> defenders;
-    private final Double defendingCombatFactor;
-    private final Double attackingCombatFactor;
+    private final int attackingCombatFactor;
+    private final int defendingCombatFactor;
 
     private Battle(Collection<GbgUnit> attackers, Collection<GbgUnit> defenders) {
-        this.attackers = attackers;
-        this.defenders = defenders;
-        defendingCombatFactor = sumCombatFactor(defenders);
-        attackingCombatFactor = sumCombatFactor(attackers);
+        this.attackers = attackers != null ? attackers : emptyList();
+        this.defenders = defenders != null ? defenders : emptyList();
+        attackingCombatFactor = sumCombatFactor(this.attackers);
+        defendingCombatFactor = sumCombatFactor(this.defenders);
     }
 
     static Battle makeBattle(BattleDescriptor battleDescriptor) {
-        return new Battle(battleDescriptor.getAttackers(), battleDescriptor.getDefenders());
+        return makeBattle(battleDescriptor.getAttackers(), battleDescriptor.getDefenders());
     }
 
     static Battle makeBattle(Collection<GbgUnit> attackers, Collection<GbgUnit> defenders) {
-        return new Battle(attackers != null ? attackers : emptyList(), defenders != null ? defenders : emptyList());
+        return new Battle(attackers, defenders);
     }
 
     @Override
@@ -42,17 +46,32 @@ class Battle implements BattleDescriptor {
         return defenders;
     }
 
-    Double getBattleRatio() {
+    /**
+     * @return the ratio used to look up the combat results table, whose thresholds are
+     * decimal fractions such as 0.333 and so are not exact themselves
+     */
+    double getBattleRatio() {
         if (defendingCombatFactor == 0) {
             if (attackingCombatFactor == 0)
                 return 1.0;
             return 6.0;
         }
-        return attackingCombatFactor / defendingCombatFactor;
+        return (double) attackingCombatFactor / defendingCombatFactor;
+    }
+
+    /**
+     * Compares the combat factors exactly, as a battle ratio above, at or below 1 would.
+     * @return positive if the attackers are stronger, negative if weaker, 0 if even
+     */
+    int compareCombatFactors() {
+        return Integer.compare(attackingCombatFactor, defendingCombatFactor);
     }
 
-    private Double sumCombatFactor(Collection<GbgUnit> units) {
-        return units.stream().mapToDouble(GbgUnit::getCombatFactor).sum();
+    private static int sumCombatFactor(Collection<GbgUnit> units) {
+        int sum = 0;
+        for (GbgUnit unit : units)
+            sum += unit.getCombatFactor();
+        return sum;
     }
 
     @Override
@@ -73,15 +92,17 @@ class Battle implements BattleDescriptor {
         return result;
     }
 
-    Double getAttackingCombatFactor() {
+    int getAttackingCombatFactor() {
         return attackingCombatFactor;
     }
 
-    Double getDefendingCombatFactor() {
+    int getDefendingCombatFactor() {
         return defendingCombatFactor;
     }
 
     ArmyID getAttackingArmy() {
-        return attackers.stream().findFirst().map(GbgUnit::getArmy).orElse(UNION);
+        for (GbgUnit unit : attackers)
+            return unit.getArmy();
+        return UNION;
     }
 }
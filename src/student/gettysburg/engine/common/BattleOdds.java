@@ -0,0 +1,66 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.ArmyID;
+import gettysburg.common.BattleDescriptor;
+import gettysburg.common.BattleResult;
+import gettysburg.common.GbgUnit;
+
+import java.util.Map;
+
+import static student.gettysburg.engine.common.Battle.makeBattle;
+
+/**
+ * The exact distribution of a battle's outcome over the six die faces, with the
+ * casualties each army can expect. Casualties follow the same elimination rules as
+ * a resolution, EXCHANGE balancing included, but not units lost later because a
+ * retreat was blocked on the board.
+ */
+public class BattleOdds {
+
+    private final double[] probabilities = new double[BattleResult.values().length];
+    private final double[] expectedCasualties = new double[ArmyID.values().length];
+    private final double[] expectedCombatFactorLoss = new double[ArmyID.values().length];
+
+    private BattleOdds(Battle battle) {
+        int bucket = CombatResultsTable.getBucket(battle.getBattleRatio());
+        double faceProbability = 1.0 / CombatResultsTable.FACES;
+        for (int face = 1; face <= CombatResultsTable.FACES; face++)
+            probabilities[CombatResultsTable.getResult(face, bucket).ordinal()] += faceProbability;
+        for (BattleResult result : BattleResult.values()) {
+            double probability = probabilities[result.ordinal()];
+            if (probability > 0)
+                addCasualties(Resolution.eliminateUnits(battle, result), probability);
+        }
+    }
+
+    public static BattleOdds makeBattleOdds(BattleDescriptor battleDescriptor) {
+        return new BattleOdds(makeBattle(battleDescriptor));
+    }
+
+    private void addCasualties(Map<GbgUnit, Boolean> unitActiveMap, double probability) {
+        unitActiveMap.forEach((unit, isActive) -> {
+            if (!isActive) {
+                expectedCasualties[unit.getArmy().ordinal()] += probability;
+                expectedCombatFactorLoss[unit.getArmy().ordinal()] += probability * unit.getCombatFactor();
+            }
+        });
+    }
+
+    public double getProbability(BattleResult result) {
+        return probabilities[result.ordinal()];
+    }
+
+    /**
+     * @return the expected number of the army's units eliminated
+     */
+    public double getExpectedCasualties(ArmyID armyID) {
+        return expectedCasualties[armyID.ordinal()];
+    }
+
+    /**
+     * @return the expected combat factor of the army's units eliminated
+     */
+    public double getExpectedCombatFactorLoss(ArmyID armyID) {
+        return expectedCombatFactorLoss[armyID.ordinal()];
+    }
+}
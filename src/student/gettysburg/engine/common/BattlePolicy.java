@@ -0,0 +1,23 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleDescriptor;
+
+/**
+ * Decides which part of a battle one army resolves next in a simulated game.
+ */
+@FunctionalInterface
+public interface BattlePolicy {
+
+    /**
+     * @param battle every unit still to fight this step
+     * @return the battle to resolve, it must include at least one unit of the given battle
+     */
+    BattleDescriptor chooseBattle(Game game, BattleDescriptor battle);
+
+    /**
+     * @return a policy that resolves each battle with every unit at once
+     */
+    static BattlePolicy makeResolveAllPolicy() {
+        return (game, battle) -> battle;
+    }
+}
@@ -5,14 +5,16 @@ import gettysburg.common.GbgBoard;
 import gettysburg.common.GbgUnit;
 import student.gettysburg.engine.utility.configure.UnitInitializer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
@@ -21,43 +23,209 @@ import static student.gettysburg.engine.common.Unit.makeUnit;
 
 class Board implements GbgBoard {
 
-    private final Map<Unit, Cell> unitPositions = new HashMap<>();
-
+    // unit state by UnitIds id, grown when a unit with a new id is placed
+    private Unit[] units = new Unit[UnitIds.count()];
+    // Cell.index() of each unit on the board
+    private int[] unitCells = new int[UnitIds.count()];
+    // Direction ordinal of each unit on the board, NONE for units without a facing
+    private byte[] facings = new byte[UnitIds.count()];
+    private final BitSet onBoard = new BitSet();
+    // Zobrist hash of every unit's cell and facing
+    private long hash;
+    // reverse index of unitCells, holds the units in each cell by Cell.index()
+    private final List<List<Unit>> cellUnits = Stream.<List<Unit>>generate(ArrayList::new)
+            .limit(Cell.COUNT)
+            .collect(Collectors.toList());
+    // number of each army's units controlling each cell, by Cell.index()
+    private final Map<ArmyID, int[]> controlCounts = new EnumMap<>(ArmyID.class);
+    // cells with a positive control count, one bit per cell
+    private final Map<ArmyID, BitSet> controlledCells = new EnumMap<>(ArmyID.class);
+    // number of each army's units with each cell in their zone of control, by Cell.index()
+    private final Map<ArmyID, int[]> zoneCounts = new EnumMap<>(ArmyID.class);
+    // cells holding a unit in a battle position, exact once the stale cells are checked again
+    private final BitSet engagedCells = new BitSet(Cell.COUNT);
+    private final BitSet staleCells = new BitSet(Cell.COUNT);
+    private final PathFinder pathFinder = new PathFinder(this);
+    private final ReachCache reachCache = new ReachCache();
+    // records the inverse of each change when set
+    private Journal journal;
+
+    Board() {
+        for (ArmyID armyID : ArmyID.values()) {
+            controlCounts.put(armyID, new int[Cell.COUNT]);
+            controlledCells.put(armyID, new BitSet(Cell.COUNT));
+            zoneCounts.put(armyID, new int[Cell.COUNT]);
+        }
+    }
 
     Collection<GbgUnit> getUnitsAt(Cell cell) {
-        return getUnitsInCell(cell)
-                .collect(Collectors.toList());
+        return new ArrayList<>(getCellUnits(cell));
     }
 
-    private Stream<GbgUnit> getUnitsInCell(Cell cell) {
-        return unitPositions.entrySet().stream()
-                .filter(entry -> isUnitInCell(entry, cell))
-                .map(Map.Entry::getKey);
+    private List<Unit> getCellUnits(Cell cell) {
+        int index = cell.index();
+        if (index < 0)
+            return emptyList();
+        return cellUnits.get(index);
     }
 
-    private Boolean isUnitInCell(Map.Entry<Unit, Cell> entry, Cell cell) {
-        return entry.getValue().equals(cell);
+    void moveUnit(Unit unit, Cell cell) {
+        // keep the instance already on the board so its facing is preserved
+        int id = unit.register();
+        if (onBoard.get(id)) {
+            record(Journal.MOVED, id, unitCells[id], null);
+            updateControl(id, -1);
+            cellUnits.get(unitCells[id]).remove(units[id]);
+            hash ^= Zobrist.unitAt(id, unitCells[id]);
+        } else {
+            record(Journal.PLACED, id, 0, null);
+            ensureCapacity(id);
+            // the board keeps its own copy, leaving the caller's unit free to change
+            units[id] = unit.frozen();
+            facings[id] = (byte) getFacing(unit.getDirection()).ordinal();
+            onBoard.set(id);
+            hash ^= Zobrist.unitFacing(id, Direction.fromOrdinal(facings[id]));
+        }
+        unitCells[id] = cell.index();
+        hash ^= Zobrist.unitAt(id, unitCells[id]);
+        cellUnits.get(unitCells[id]).add(units[id]);
+        updateControl(id, 1);
     }
 
-    void moveUnit(Unit unit, Cell cell) {
-        unitPositions.put(unit, cell);
+    void setUnitFacing(GbgUnit unit, gettysburg.common.Direction facing) {
+        Unit boardUnit = (Unit) getUnit(unit);
+        record(Journal.TURNED, boardUnit.getId(), 0, boardUnit);
+        // units are never changed in place, so copies of this board can share them
+        replaceUnit(boardUnit.getId(), boardUnit.withFacing(Direction.fromOriginal(facing)));
     }
 
-    final Predicate<Cell> cellIsOccupied = cell -> !getUnitsAt(cell).isEmpty();
+    private void replaceUnit(int id, Unit unit) {
+        updateControl(id, -1);
+        List<Unit> cell = cellUnits.get(unitCells[id]);
+        units[id] = unit;
+        cell.set(cell.indexOf(unit), unit);
+        hash ^= Zobrist.unitFacing(id, Direction.fromOrdinal(facings[id]));
+        facings[id] = (byte) getFacing(unit.getDirection()).ordinal();
+        hash ^= Zobrist.unitFacing(id, Direction.fromOrdinal(facings[id]));
+        updateControl(id, 1);
+    }
+
+    void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    private void record(int op, int id, int value, Object object) {
+        if (journal != null)
+            journal.record(op, id, value, object);
+    }
+
+    /**
+     * Undoes a board entry of the journal, which must not be recording.
+     */
+    void undo(Journal journal, int entry) {
+        int id = journal.getId(entry);
+        switch (journal.getOp(entry)) {
+            case Journal.PLACED:
+                removeUnit(units[id]);
+                break;
+            case Journal.MOVED:
+                moveUnit(units[id], Cell.fromIndex(journal.getValue(entry)));
+                break;
+            case Journal.TURNED:
+                replaceUnit(id, (Unit) journal.getObject(entry));
+                break;
+            case Journal.REMOVED:
+                moveUnit((Unit) journal.getObject(entry), Cell.fromIndex(journal.getValue(entry)));
+                break;
+            default:
+                throw new IllegalArgumentException("Not a board entry: " + journal.getOp(entry));
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < units.length)
+            return;
+        int length = Math.max(id + 1, units.length * 2);
+        units = Arrays.copyOf(units, length);
+        unitCells = Arrays.copyOf(unitCells, length);
+        facings = Arrays.copyOf(facings, length);
+    }
+
+    final Predicate<Cell> cellIsOccupied = cell -> !getCellUnits(cell).isEmpty();
 
     GbgUnit getUnit(GbgUnit theUnit) {
         // find unit on board with same army and leader
-        Optional<GbgUnit> unitOptional = unitPositions.keySet().stream()
-                .filter(unit -> unit.equals(theUnit))
-                .map(Unit::toOriginal)
-                .findFirst();
-        if (unitOptional.isPresent())
-            return unitOptional.get();
+        Unit unit = getUnit(UnitIds.find(theUnit));
+        if (unit != null)
+            return unit;
         throw new RuntimeException("Could not find unit: " + theUnit);
     }
 
+    /**
+     * @return the facing the board holds for the unit, which its zone of control uses
+     */
+    gettysburg.common.Direction getUnitFacing(GbgUnit unit) {
+        return Direction.fromOrdinal(facings[((Unit) getUnit(unit)).getId()]).getOriginal();
+    }
+
+    /**
+     * @return the unit with the id, or null if it is not on the board
+     */
+    Unit getUnit(int id) {
+        return isOnBoard(id) ? units[id] : null;
+    }
+
+    /**
+     * @return the lowest id of a unit on the board from the given one on, or -1 if none
+     */
+    int nextUnitId(int from) {
+        return onBoard.nextSetBit(from);
+    }
+
+    /**
+     * @return the units with the ids are both on the board and one has the other in its
+     * zone of control
+     */
+    boolean isInContact(int id, int otherId) {
+        if (!isOnBoard(id) || !isOnBoard(otherId))
+            return false;
+        return isInZone(id, unitCells[otherId]) || isInZone(otherId, unitCells[id]);
+    }
+
+    private boolean isInZone(int id, int index) {
+        for (int zoneIndex : Geometry.zoneOfControl(unitCells[id], Direction.fromOrdinal(facings[id]))) {
+            if (zoneIndex == index)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of the units on the board, in order of their ids
+     */
+    List<Unit> getUnits() {
+        List<Unit> list = new ArrayList<>(onBoard.cardinality());
+        for (int id = onBoard.nextSetBit(0); id >= 0; id = onBoard.nextSetBit(id + 1))
+            list.add(units[id]);
+        return list;
+    }
+
+    /**
+     * @return a Zobrist hash of the units' cells and facings, equal for boards with the
+     * same units in the same places however they got there
+     */
+    long getHash() {
+        return hash;
+    }
+
     Cell getUnitPosition(Unit unit) {
-        return unitPositions.get(unit);
+        int id = unit.getId();
+        return isOnBoard(id) ? Cell.fromIndex(unitCells[id]) : null;
+    }
+
+    private boolean isOnBoard(int id) {
+        // units without an id were never placed
+        return id >= 0 && onBoard.get(id);
     }
 
     void placeUnit(UnitInitializer unitInitializer) {
@@ -65,56 +233,282 @@ class Board implements GbgBoard {
     }
 
     void clear() {
-        unitPositions.clear();
+        Arrays.fill(units, null);
+        onBoard.clear();
+        hash = 0;
+        cellUnits.forEach(List::clear);
+        controlCounts.values().forEach(counts -> Arrays.fill(counts, 0));
+        controlledCells.values().forEach(BitSet::clear);
+        zoneCounts.values().forEach(counts -> Arrays.fill(counts, 0));
+        engagedCells.clear();
+        staleCells.clear();
+        reachCache.clear();
+    }
+
+    /**
+     * Makes this board a copy of another. The boards share their units, which neither
+     * changes in place.
+     */
+    void copyFrom(Board other) {
+        if (units.length < other.units.length) {
+            units = new Unit[other.units.length];
+            unitCells = new int[other.units.length];
+            facings = new byte[other.units.length];
+        } else {
+            Arrays.fill(units, other.units.length, units.length, null);
+        }
+        System.arraycopy(other.units, 0, units, 0, other.units.length);
+        System.arraycopy(other.unitCells, 0, unitCells, 0, other.units.length);
+        System.arraycopy(other.facings, 0, facings, 0, other.units.length);
+        copy(other.onBoard, onBoard);
+        hash = other.hash;
+        for (int index = 0; index < Cell.COUNT; index++) {
+            List<Unit> cell = cellUnits.get(index);
+            cell.clear();
+            cell.addAll(other.cellUnits.get(index));
+        }
+        for (ArmyID armyID : ArmyID.values()) {
+            System.arraycopy(other.controlCounts.get(armyID), 0, controlCounts.get(armyID), 0, Cell.COUNT);
+            System.arraycopy(other.zoneCounts.get(armyID), 0, zoneCounts.get(armyID), 0, Cell.COUNT);
+            copy(other.controlledCells.get(armyID), controlledCells.get(armyID));
+        }
+        copy(other.engagedCells, engagedCells);
+        copy(other.staleCells, staleCells);
+        reachCache.clear();
+    }
+
+    /**
+     * @return the board's state as flat arrays that are never changed
+     */
+    Snapshot snapshot() {
+        // settle the battle positions so the stale cells need not be kept
+        getEngagedCells();
+        return new Snapshot(this);
+    }
+
+    /**
+     * Puts the board back in a snapshot's state, in a few array copies.
+     */
+    void restore(Snapshot snapshot) {
+        for (int id = onBoard.nextSetBit(0); id >= 0; id = onBoard.nextSetBit(id + 1))
+            cellUnits.get(unitCells[id]).clear();
+        int length = snapshot.units.length;
+        if (units.length < length) {
+            units = new Unit[length];
+            unitCells = new int[length];
+            facings = new byte[length];
+        } else {
+            Arrays.fill(units, length, units.length, null);
+        }
+        System.arraycopy(snapshot.units, 0, units, 0, length);
+        System.arraycopy(snapshot.unitCells, 0, unitCells, 0, length);
+        System.arraycopy(snapshot.facings, 0, facings, 0, length);
+        copy(snapshot.onBoard, onBoard);
+        for (int id = onBoard.nextSetBit(0); id >= 0; id = onBoard.nextSetBit(id + 1))
+            cellUnits.get(unitCells[id]).add(units[id]);
+        for (ArmyID armyID : ArmyID.values()) {
+            System.arraycopy(snapshot.controlCounts[armyID.ordinal()], 0, controlCounts.get(armyID), 0, Cell.COUNT);
+            System.arraycopy(snapshot.zoneCounts[armyID.ordinal()], 0, zoneCounts.get(armyID), 0, Cell.COUNT);
+            copy(snapshot.controlledCells[armyID.ordinal()], controlledCells.get(armyID));
+        }
+        copy(snapshot.engagedCells, engagedCells);
+        staleCells.clear();
+        hash = snapshot.hash;
+        reachCache.clear();
+    }
+
+    /**
+     * A board's state, immutable once made so it can be shared between threads. Its units
+     * are shared with the boards restored from it, which is safe because units are frozen
+     * once a board holds them.
+     */
+    static final class Snapshot {
+        private final Unit[] units;
+        private final int[] unitCells;
+        private final byte[] facings;
+        private final BitSet onBoard;
+        private final int[][] controlCounts = new int[ArmyID.values().length][];
+        private final BitSet[] controlledCells = new BitSet[ArmyID.values().length];
+        private final int[][] zoneCounts = new int[ArmyID.values().length][];
+        private final BitSet engagedCells;
+        private final long hash;
+
+        private Snapshot(Board board) {
+            // arrays only as long as the highest id on the board needs
+            int length = board.onBoard.length();
+            units = Arrays.copyOf(board.units, length);
+            unitCells = Arrays.copyOf(board.unitCells, length);
+            facings = Arrays.copyOf(board.facings, length);
+            onBoard = (BitSet) board.onBoard.clone();
+            for (ArmyID armyID : ArmyID.values()) {
+                controlCounts[armyID.ordinal()] = board.controlCounts.get(armyID).clone();
+                controlledCells[armyID.ordinal()] = (BitSet) board.controlledCells.get(armyID).clone();
+                zoneCounts[armyID.ordinal()] = board.zoneCounts.get(armyID).clone();
+            }
+            engagedCells = (BitSet) board.engagedCells.clone();
+            hash = board.hash;
+        }
+    }
+
+    private static void copy(BitSet from, BitSet to) {
+        to.clear();
+        to.or(from);
     }
 
     void removeStackedUnits() {
-        getOccupiedCells().forEach(coordinate -> {
-            if (cellHasStackedUnits(coordinate))
-                removeUnitsAt(coordinate);
+        cellUnits.forEach(units -> {
+            if (units.size() > 1)
+                new ArrayList<>(units).forEach(this::removeUnit);
         });
     }
 
 
 
     Stream<GbgUnit> getUnitsInBattlePositions() {
-        // for each attacker get corresponding defenders, remove duplicates
-        return unitPositions.keySet().stream()
-                .filter(this::isUnitAttacking)
-                .flatMap(this::getEngagedUnits)
-                .distinct();
+        List<GbgUnit> units = new ArrayList<>();
+        BitSet engaged = getEngagedCells();
+        for (int index = engaged.nextSetBit(0); index >= 0; index = engaged.nextSetBit(index + 1)) {
+            for (Unit unit : cellUnits.get(index)) {
+                if (isUnitEngaged(unit, index))
+                    units.add(unit);
+            }
+        }
+        return units.stream();
     }
 
-    private Boolean isUnitAttacking(Unit unit) {
-        return isUnitAttackingFrom(unit, getUnitPosition(unit));
+    private BitSet getEngagedCells() {
+        for (int index = staleCells.nextSetBit(0); index >= 0; index = staleCells.nextSetBit(index + 1))
+            engagedCells.set(index, isCellEngaged(index));
+        staleCells.clear();
+        return engagedCells;
     }
 
-    private Boolean isUnitAttackingFrom(Unit unit, Cell cell) {
-        // check if enemy in the unit's ZOC
-        Stream<Cell> z = getZoneOfControlAt(unit, cell);
-        return z.anyMatch(cellIsOccupiedBy(unit.getEnemy()));
+    private boolean isCellEngaged(int index) {
+        for (Unit unit : cellUnits.get(index)) {
+            if (isUnitEngaged(unit, index))
+                return true;
+        }
+        return false;
     }
 
-    private Stream<GbgUnit> getEngagedUnits(Unit unit) {
-        // combine the attacker with it's defenders
-        return Stream.concat(Stream.of(unit), getDefenders(unit));
+    private boolean isUnitEngaged(Unit unit, int index) {
+        // defending when in an enemy's zone of control, attacking with an enemy in its own
+        return zoneCounts.get(unit.getEnemy())[index] > 0 || isUnitAttackingFrom(unit, index);
     }
 
-    private Stream<GbgUnit> getDefenders(Unit unit) {
-        // get the defenders of the attacking unit
-        return getZoneOfControl(unit)
-                .flatMap(this::getUnitsInCell)
-                .filter(isOnArmy(unit.getEnemy()));
+    private boolean isUnitAttackingFrom(Unit unit, int index) {
+        // check if enemy in the unit's ZOC
+        for (int zoneIndex : Geometry.zoneOfControl(index, getFacing(unit))) {
+            if (isOccupiedBy(zoneIndex, unit.getEnemy()))
+                return true;
+        }
+        return false;
     }
 
+    /**
+     * Splits the units in battle positions into independent engagements, in one pass over
+     * the occupied cells. Units are in the same engagement when one has the other in its
+     * zone of control, directly or through other engaged units.
+     * @return the units of each engagement, ordered by cell
+     */
+    List<List<Unit>> getEngagements() {
+        BitSet engaged = getEngagedCells();
+        int[] roots = new int[Cell.COUNT];
+        // every engaged cell starts as its own engagement, even one that joins no other
+        for (int index = engaged.nextSetBit(0); index >= 0; index = engaged.nextSetBit(index + 1))
+            roots[index] = index;
+        for (int index = engaged.nextSetBit(0); index >= 0; index = engaged.nextSetBit(index + 1)) {
+            for (Unit unit : cellUnits.get(index)) {
+                for (int zoneIndex : Geometry.zoneOfControl(index, getFacing(unit))) {
+                    // stacks may mix armies, so any enemy in the cell engages it
+                    if (engaged.get(zoneIndex) && hasUnitOf(zoneIndex, unit.getEnemy()))
+                        join(roots, index, zoneIndex);
+                }
+            }
+        }
+        // roots of engaged cells point to the engagement's position in the list once it is started
+        List<List<Unit>> engagements = new ArrayList<>();
+        int[] engagementAt = new int[Cell.COUNT];
+        for (int index = engaged.nextSetBit(0); index >= 0; index = engaged.nextSetBit(index + 1)) {
+            int root = find(roots, index);
+            if (root == index) {
+                engagementAt[root] = engagements.size();
+                engagements.add(new ArrayList<>());
+            }
+            engagements.get(engagementAt[root]).addAll(cellUnits.get(index));
+        }
+        return engagements;
+    }
 
+    private static void join(int[] roots, int a, int b) {
+        int rootA = find(roots, a);
+        int rootB = find(roots, b);
+        // the lower cell is the root so every engagement starts at its root
+        if (rootA < rootB)
+            roots[rootB] = rootA;
+        else
+            roots[rootA] = rootB;
+    }
+
+    private static int find(int[] roots, int index) {
+        while (roots[index] != index) {
+            roots[index] = roots[roots[index]];
+            index = roots[index];
+        }
+        return index;
+    }
 
     void removeUnits(Collection<GbgUnit> units) {
         units.forEach(unit -> removeUnit(makeUnit(unit)));
     }
 
     Boolean hasPath(Unit unit, Cell destination, Integer length) {
-        return PathFinder.find(getUnitPosition(unit), destination, length, getAllowedNeighborsAt(unit));
+        return pathFinder.find(unit, getUnitPosition(unit).index(), destination.index(), length);
+    }
+
+    /**
+     * The returned set is cached until the board changes near the unit and must not be modified.
+     */
+    BitSet getReachableCells(Unit unit) {
+        int origin = getUnitPosition(unit).index();
+        Direction facing = getFacing(unit);
+        BitSet reachable = reachCache.get(unit, origin, facing);
+        if (reachable != null)
+            return reachable;
+        reachable = new BitSet(Cell.COUNT);
+        pathFinder.reach(unit, origin, unit.getMovementFactor(), reachable);
+        // units may pass through friendly units but not stop on them
+        for (int index = reachable.nextSetBit(0); index >= 0; index = reachable.nextSetBit(index + 1)) {
+            if (!cellUnits.get(index).isEmpty())
+                reachable.clear(index);
+        }
+        reachCache.put(unit, origin, facing, reachable);
+        return reachable;
+    }
+
+    // index based move rules used by the path finder
+
+    boolean canMoveFrom(Unit unit, int index) {
+        // unit in enemy ZOC or enemy in unit's ZOC
+        return !controlledCells.get(unit.getEnemy()).get(index)
+                && !isUnitAttackingFrom(unit, index);
+    }
+
+    boolean canMoveInto(Unit unit, int index) {
+        return !isOccupiedBy(index, unit.getEnemy());
+    }
+
+    private boolean isOccupiedBy(int index, ArmyID armyID) {
+        List<Unit> units = cellUnits.get(index);
+        return !units.isEmpty() && units.get(0).getArmy() == armyID;
+    }
+
+    private boolean hasUnitOf(int index, ArmyID armyID) {
+        for (Unit unit : cellUnits.get(index)) {
+            if (unit.getArmy() == armyID)
+                return true;
+        }
+        return false;
     }
 
 
@@ -132,7 +526,7 @@ class Board implements GbgBoard {
     Function<Cell, Collection<Cell>> getAllowedNeighborsAt(Unit unit) {
         return cell -> {
             // check if unable to move
-            if (isUnableToMoveFrom(unit, cell))
+            if (!canMoveFrom(unit, cell.index()))
                 return emptyList();
             // get open neighbors not occupied by enemy
             return getNeighborsAt.apply(cell)
@@ -141,70 +535,69 @@ class Board implements GbgBoard {
         };
     }
 
-    private Function<Cell, Stream<Cell>> getNeighborsAt = cell -> Direction.all().map(cell::getAdjacent);
+    private Function<Cell, Stream<Cell>> getNeighborsAt = cell -> Arrays.stream(Geometry.neighbors(cell.index()))
+            .mapToObj(Cell::fromIndex);
 
     // private
 
-    private Collection<Cell> getOccupiedCells() {
-        return unitPositions.values().stream().distinct().collect(Collectors.toList());
-    }
-
-    private void removeUnitsAt(Cell cell) {
-        getUnitsAt(cell).forEach(unit -> removeUnit((Unit) unit));
-    }
-
     void removeUnit(Unit unit) {
-        unitPositions.remove(unit);
+        int id = unit.getId();
+        if (!isOnBoard(id))
+            return;
+        record(Journal.REMOVED, id, unitCells[id], units[id]);
+        updateControl(id, -1);
+        cellUnits.get(unitCells[id]).remove(units[id]);
+        hash ^= Zobrist.unitAt(id, unitCells[id]) ^ Zobrist.unitFacing(id, Direction.fromOrdinal(facings[id]));
+        units[id] = null;
+        onBoard.clear(id);
     }
 
-    private Boolean cellHasStackedUnits(Cell cell) {
-        return getUnitsAt(cell).size() > 1;
+    private void updateControl(int id, int delta) {
+        // a unit controls its own cell and its zone of control, which also
+        // covers every cell whose occupancy changes. The zone comes from the facing
+        // the board holds, so adding and removing control always cover the same cells
+        ArmyID armyID = units[id].getArmy();
+        int[] counts = controlCounts.get(armyID);
+        BitSet controlled = controlledCells.get(armyID);
+        int[] zones = zoneCounts.get(armyID);
+        int index = unitCells[id];
+        updateControl(counts, controlled, index, delta);
+        for (int zoneIndex : Geometry.zoneOfControl(index, Direction.fromOrdinal(facings[id]))) {
+            updateControl(counts, controlled, zoneIndex, delta);
+            zones[zoneIndex] += delta;
+            staleCells.set(zoneIndex);
+        }
+        // units around the cell may start or stop attacking it
+        staleCells.set(index);
+        for (int neighbor : Geometry.neighbors(index))
+            staleCells.set(neighbor);
     }
 
-    private Predicate<GbgUnit> isOnArmy(ArmyID army) {
-        return unit -> unit.getArmy() == army;
+    private void updateControl(int[] counts, BitSet controlled, int index, int delta) {
+        counts[index] += delta;
+        controlled.set(index, counts[index] > 0);
+        reachCache.markDirty(index);
     }
 
     private Predicate<Cell> cellIsOccupiedBy(ArmyID armyID) {
-        return cell -> {
-            Optional<GbgUnit> unit = getUnitsAt(cell).stream().findFirst();
-            return unit.isPresent() && unit.get().getArmy() == armyID && cellIsOccupied.test(cell);
-        };
-    }
-
-    private Stream<Cell> getZoneOfControl(Unit unit) {
-        return getZoneOfControlAt(unit, getUnitPosition(unit));
+        return cell -> cell.isOnBoard() && isOccupiedBy(cell.index(), armyID);
     }
 
-    private Stream<Cell> getZoneOfControlAt(Unit unit, Cell cell) {
-        Direction direction = unit.getDirection();
-        // 3 cells where unit is facing
-        return IntStream.range(-1, 2)
-                .mapToObj(direction::rotate)
-                .map(cell::getAdjacent);
+    private Direction getFacing(Unit unit) {
+        // units off the board, like those probing a move, keep their own facing
+        int id = unit.getId();
+        if (isOnBoard(id))
+            return Direction.fromOrdinal(facings[id]);
+        return getFacing(unit.getDirection());
     }
 
-    private Boolean isUnableToMoveFrom(Unit unit, Cell cell) {
-        // unit in enemy ZOC or enemy in unit's ZOC
-        return isControlledByArmy(unit.getEnemy()).test(cell)
-                || isUnitAttackingFrom(unit, cell);
+    private static Direction getFacing(Direction direction) {
+        return direction != null ? direction : Direction.NONE;
     }
 
     // within any of army's units' zone of control
     private Predicate<Cell> isControlledByArmy(ArmyID armyID) {
-        // check each direction
-        return cell -> Direction.allAndNone().anyMatch(direction ->
-                // check neighboring friendly units if in control
-                getUnitsAt(cell.getAdjacent(direction))
-                        .stream()
-                        .filter(unit -> unit.getArmy() == armyID)
-                        .map(Unit::makeUnit)
-                        .anyMatch(isControlledByUnit(cell)));
-    }
-
-    private Predicate<Unit> isControlledByUnit(Cell theCell) {
-        // check if in cell or cell is in zone of control
-        return unit -> getUnitPosition(unit).equals(theCell)
-                || getZoneOfControl(unit).filter(cell -> cell.equals(theCell)).count() > 0;
+        BitSet controlled = controlledCells.get(armyID);
+        return cell -> cell.isOnBoard() && controlled.get(cell.index());
     }
 }
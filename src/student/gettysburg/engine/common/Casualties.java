@@ -0,0 +1,46 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.ArmyID;
+
+import java.util.BitSet;
+
+/**
+ * Counts the units each army has lost in a game, as the units seen on the board that are
+ * no longer on it. Removed units never come back, so this catches every loss, whether
+ * the unit was eliminated in battle, had nowhere to retreat or was left stacked.
+ */
+final class Casualties {
+
+    private final BitSet[] seenUnits = new BitSet[ArmyID.values().length];
+
+    Casualties() {
+        for (int i = 0; i < seenUnits.length; i++)
+            seenUnits[i] = new BitSet();
+    }
+
+    void clear() {
+        for (BitSet seen : seenUnits)
+            seen.clear();
+    }
+
+    /**
+     * Notes the units now on the board, which must be done before any of them can be lost.
+     */
+    void see(Board board) {
+        for (int id = board.nextUnitId(0); id >= 0; id = board.nextUnitId(id + 1))
+            seenUnits[board.getUnit(id).getArmy().ordinal()].set(id);
+    }
+
+    /**
+     * @return the number of the army's units seen on the board that are no longer on it
+     */
+    int count(ArmyID armyID, Board board) {
+        BitSet seen = seenUnits[armyID.ordinal()];
+        int lost = 0;
+        for (int id = seen.nextSetBit(0); id >= 0; id = seen.nextSetBit(id + 1)) {
+            if (board.getUnit(id) == null)
+                lost++;
+        }
+        return lost;
+    }
+}
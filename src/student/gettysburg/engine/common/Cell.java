@@ -28,7 +28,21 @@ import static java.lang.Math.*;
  */
 public class Cell implements Coordinate
 {
+	/**
+	 * Number of cells on the board, used to size arrays indexed by {@link #index()}.
+	 */
+	public static final int COUNT = GbgBoard.COLUMNS * GbgBoard.ROWS;
+
+	// the canonical instance of every cell on the board, by index
+	private static final Cell[] cells = new Cell[COUNT];
+	static {
+		for (int index = 0; index < COUNT; index++) {
+			cells[index] = new Cell(index % GbgBoard.COLUMNS + 1, index / GbgBoard.COLUMNS + 1);
+		}
+	}
+
 	private final int x, y;
+	private final int index;
 	
 	/**
 	 * Private constructor that is called by the factory method.
@@ -38,6 +52,7 @@ public class Cell implements Coordinate
 	Cell(int x, int y) {
 		this.x = x;
 		this.y = y;
+		this.index = isOnBoard(x, y) ? (y - 1) * GbgBoard.COLUMNS + (x - 1) : -1;
 	}
 	
 	/**
@@ -45,19 +60,33 @@ public class Cell implements Coordinate
 	 */
 	public Cell() {
 		x = y = 0;
+		index = -1;
 	}
 	
 	/**
-	 * Factory method for creating Cells.
+	 * Factory method for creating Cells. Cells are immutable, so the
+	 * same instance is returned for every call with the same coordinates.
 	 * @param x
 	 * @param y
 	 * @return
 	 */
 	public static Cell makeCell(int x, int y) {
-		if (x < 1 || x > GbgBoard.COLUMNS || y < 1 || y > GbgBoard.ROWS) {
+		if (!isOnBoard(x, y)) {
 			throw new GbgInvalidCoordinateException("Coordinates for (" + x + ", " + y + ") are out of bounds.");
 		}
-		return new Cell(x, y);
+		return cells[(y - 1) * GbgBoard.COLUMNS + (x - 1)];
+	}
+
+	/**
+	 * Factory method for the cell at a dense index.
+	 * @param index the index of the cell as returned by {@link #index()}
+	 * @return the cell
+	 */
+	public static Cell fromIndex(int index) {
+		if (index < 0 || index >= COUNT) {
+			throw new GbgInvalidCoordinateException("Cell index " + index + " is out of bounds.");
+		}
+		return cells[index];
 	}
 
 	/**
@@ -163,7 +192,49 @@ public class Cell implements Coordinate
 		return"(" + x + ", " + y + ")";
 	}
 
+	/**
+	 * Adjacent cells on the board are the canonical instances; cells off the
+	 * board are only created for callers that filter them out afterwards.
+	 */
 	Cell getAdjacent(Direction direction) {
+		int adjacent = adjacentIndex(index, direction);
+		if (adjacent >= 0)
+			return cells[adjacent];
 		return new Cell(x + direction.dx, y + direction.dy);
 	}
+
+	/**
+	 * @return true if the cell lies within the bounds of the board
+	 */
+	boolean isOnBoard() {
+		return index >= 0;
+	}
+
+	static boolean isOnBoard(int x, int y) {
+		return x >= 1 && x <= GbgBoard.COLUMNS && y >= 1 && y <= GbgBoard.ROWS;
+	}
+
+	/**
+	 * Dense row-major index of the cell, suitable for array lookups.
+	 * @return the index in [0, COUNT) or -1 if the cell is off the board
+	 */
+	public int index() {
+		return index;
+	}
+
+	/**
+	 * Index arithmetic equivalent of getAdjacent(direction).index().
+	 * @param index the index of a cell on the board
+	 * @param direction
+	 * @return the index of the adjacent cell or -1 if it is off the board
+	 */
+	static int adjacentIndex(int index, Direction direction) {
+		if (index < 0)
+			return -1;
+		int x = index % GbgBoard.COLUMNS + direction.dx;
+		int y = index / GbgBoard.COLUMNS + direction.dy;
+		if (x < 0 || x >= GbgBoard.COLUMNS || y < 0 || y >= GbgBoard.ROWS)
+			return -1;
+		return y * GbgBoard.COLUMNS + x;
+	}
 }
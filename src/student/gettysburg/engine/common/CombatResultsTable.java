@@ -0,0 +1,83 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleResult;
+
+import java.util.Arrays;
+
+import static gettysburg.common.BattleResult.*;
+
+/**
+ * The combat results table compiled to a dense lookup. Every threshold of every die
+ * face splits battle ratios into odds buckets, and each face and bucket maps to one
+ * result, so resolving a roll is a binary search over 13 doubles and an array read.
+ */
+final class CombatResultsTable {
+
+    static final int FACES = 6;
+
+    private static final BattleResult[] battleResults = BattleResult.values();
+    private static final double[] thresholds;
+    private static final byte[] table;
+
+    static {
+        // each face lists the lowest ratio of each of its results, in increasing order
+        double[][] faceRatios = {
+                {0.0, 0.2, 0.333, 0.5},
+                {0.0, 0.25, 0.333, 1.0, 2.0, 5.0},
+                {0.0, 0.167, 0.5, 4.0},
+                {0.0, 0.2, 0.3, 6.0},
+                {0.0, 1.0, 4.0, 5.0},
+                {0.0, 3.0},
+        };
+        BattleResult[][] faceResults = {
+                {AELIM, ABACK, DBACK, DELIM},
+                {AELIM, ABACK, EXCHANGE, ABACK, EXCHANGE, DBACK},
+                {AELIM, ABACK, DBACK, DELIM},
+                {AELIM, ABACK, DBACK, DELIM},
+                {AELIM, EXCHANGE, DBACK, DELIM},
+                {AELIM, DELIM},
+        };
+        thresholds = Arrays.stream(faceRatios)
+                .flatMapToDouble(Arrays::stream)
+                .distinct()
+                .sorted()
+                .toArray();
+        table = new byte[FACES * thresholds.length];
+        for (int face = 0; face < FACES; face++) {
+            int result = 0;
+            for (int bucket = 0; bucket < thresholds.length; bucket++) {
+                double[] ratios = faceRatios[face];
+                while (result + 1 < ratios.length && thresholds[bucket] >= ratios[result + 1])
+                    result++;
+                table[face * thresholds.length + bucket] = (byte) faceResults[face][result].ordinal();
+            }
+        }
+    }
+
+    private CombatResultsTable() {
+    }
+
+    static int getBucketCount() {
+        return thresholds.length;
+    }
+
+    /**
+     * @return the odds bucket of the highest threshold at or below the ratio. Ratios
+     * below every threshold share the top bucket, as the original per-face lists did.
+     */
+    static int getBucket(double battleRatio) {
+        int index = Arrays.binarySearch(thresholds, battleRatio);
+        if (index >= 0)
+            return index;
+        int bucket = -index - 2;
+        return bucket < 0 ? thresholds.length - 1 : bucket;
+    }
+
+    static BattleResult getResult(int dieFace, int bucket) {
+        return battleResults[table[(dieFace - 1) * thresholds.length + bucket]];
+    }
+
+    static BattleResult getResult(int dieFace, double battleRatio) {
+        return getResult(dieFace, getBucket(battleRatio));
+    }
+}
@@ -0,0 +1,13 @@
+package student.gettysburg.engine.common;
+
+/**
+ * Rolls the six sided die that decides battles.
+ */
+@FunctionalInterface
+public interface DiceSource {
+
+    /**
+     * @return a face from 1 to 6
+     */
+    int roll();
+}
@@ -1,11 +1,8 @@
 package student.gettysburg.engine.common;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
-import static java.util.Arrays.asList;
-
 public enum Direction {
     NORTH(0, -1),
     NORTHEAST(1, -1),
@@ -17,38 +14,59 @@ public enum Direction {
     NORTHWEST(-1, -1),
     NONE(0, 0);
 
-    final Integer dx;
-    final Integer dy;
-
-    private static final Map<Cell, Direction> map = new HashMap<>();
-
-    Direction(Integer dx, Integer dy) {
+    final int dx;
+    final int dy;
+
+    // the compass directions are declared clockwise, so rotating is ordinal arithmetic
+    private static final int COMPASS_POINTS = 8;
+    private static final Direction[] directions = values();
+    // all compass directions, each half circle followed by its opposite
+    private static final Direction[] compass = {
+            NORTH, EAST, NORTHEAST, NORTHWEST, SOUTH, WEST, SOUTHWEST, SOUTHEAST
+    };
+    // directions by (dy + 1) * 3 + (dx + 1)
+    private static final Direction[] deltas = new Direction[9];
+    private static final gettysburg.common.Direction[] originals = new gettysburg.common.Direction[directions.length];
+    private static final Direction[] fromOriginals = new Direction[gettysburg.common.Direction.values().length];
+
+    Direction(int dx, int dy) {
         this.dx = dx;
         this.dy = dy;
     }
 
     static {
-        for (Direction dir : Direction.values()) {
-            map.put(new Cell(dir.dx, dir.dy), dir);
+        for (Direction dir : directions) {
+            deltas[(dir.dy + 1) * 3 + (dir.dx + 1)] = dir;
+            gettysburg.common.Direction original = gettysburg.common.Direction.valueOf(dir.name());
+            originals[dir.ordinal()] = original;
+            fromOriginals[original.ordinal()] = dir;
         }
     }
 
     static Stream<Direction> all() {
-        return Stream.concat(semiCircle(), semiCircle().map(Direction::opposite));
+        return Arrays.stream(compass);
     }
 
-    static Stream<Direction> semiCircle() {
-        return Stream.of(NORTH, EAST, NORTHEAST, NORTHWEST);
+    /**
+     * Same directions and order as all(), for loops that should not build a stream.
+     * @return a shared array that must not be modified
+     */
+    static Direction[] compass() {
+        return compass;
+    }
+
+    static Direction fromOrdinal(int ordinal) {
+        return directions[ordinal];
     }
 
     static Direction fromOriginal(gettysburg.common.Direction direction) {
         if (direction == null)
             return null;
-        return valueOf(direction.name());
+        return fromOriginals[direction.ordinal()];
     }
 
-    private static Direction fromDelta(Integer dx, Integer dy) {
-        return map.get(new Cell(dx, dy));
+    private static Direction fromDelta(int dx, int dy) {
+        return deltas[(dy + 1) * 3 + (dx + 1)];
     }
 
     Direction opposite() {
@@ -56,7 +74,7 @@ public enum Direction {
     }
 
     gettysburg.common.Direction getOriginal() {
-        return gettysburg.common.Direction.valueOf(name());
+        return originals[ordinal()];
     }
 
     Direction rotateClockwise() {
@@ -67,25 +85,10 @@ public enum Direction {
         return rotate(1);
     }
 
-    Direction rotate(Integer delta) {
-        // TODO convert to degrees
-        if (delta == 0) {
-            return fromDelta(dx, dy);
-        }
-        if (isCardinal()) {
-            return fromDelta(dx + delta * dy, dy - delta * dx);
-        }
-        if (dx * dy == delta) {
-            return fromDelta(dx, 0);
-        }
-        return fromDelta(0, dy);
-    }
-
-    private Boolean isCardinal() {
-        return asList(NORTH, EAST, SOUTH, WEST).contains(this);
-    }
-
-    public static Stream<Direction> allAndNone() {
-        return Stream.concat(Direction.all(), Stream.of(NONE));
+    Direction rotate(int delta) {
+        if (this == NONE)
+            return NONE;
+        // positive deltas rotate counter clockwise
+        return directions[Math.floorMod(ordinal() - delta, COMPASS_POINTS)];
     }
 }
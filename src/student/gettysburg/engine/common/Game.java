@@ -15,11 +15,11 @@ import gettysburg.common.*;
 import gettysburg.common.Direction;
 import gettysburg.common.exceptions.GbgInvalidActionException;
 import gettysburg.common.exceptions.GbgInvalidMoveException;
+import student.gettysburg.engine.utility.configure.UnitInitializer;
 
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static gettysburg.common.ArmyID.CONFEDERATE;
 import static gettysburg.common.ArmyID.UNION;
@@ -30,10 +30,8 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static student.gettysburg.engine.common.Battle.makeBattle;
 import static student.gettysburg.engine.common.Cell.makeCell;
-import static student.gettysburg.engine.common.Reinforcements.makeReinforcements;
 import static student.gettysburg.engine.common.Resolution.makeResolution;
 import static student.gettysburg.engine.common.Unit.makeUnit;
-import static student.gettysburg.engine.utility.configure.BattleOrder.getBattleOrder;
 
 /**
  * This is the game engine master class that provides the interface to the game
@@ -48,25 +46,128 @@ public class Game implements GbgGame {
 	private static final Integer TURN_LIMIT = 49;
 
 	private GbgGameStatus gameStatus = IN_PROGRESS;
-	private final Reinforcements reinforcements = makeReinforcements(getBattleOrder());
+	private final Scenario scenario = Scenario.getStandardScenario();
 
 	Integer currentTurn = 1;
 	GbgGameStep currentStep = UMOVE;
 	final Board board = new Board();
-	private final Set<GbgUnit> movedUnits = new HashSet<>();
-	private final Set<GbgUnit> rotatedUnits = new HashSet<>();
-	private final Set<GbgUnit> battledUnits = new HashSet<>();
-	private Collection<BattleDescriptor> battlesToResolve = emptyList();
+	// per-turn flags by unit id, see UnitIds
+	private final BitSet movedUnits = new BitSet();
+	private final BitSet rotatedUnits = new BitSet();
+	private final BitSet battledUnits = new BitSet();
+	// Zobrist hash of the flags set in the three sets above
+	private long flagsHash;
+	private final Journal journal = new Journal();
+	private final DiceSource dice;
 
 	public Game() {
-		placeReinforcements(UNION, 0);
-		placeReinforcements(CONFEDERATE, 0);
+		this(Resolution::rollDie);
+	}
+
+	/**
+	 * @param dice the source of every battle die roll in this game
+	 */
+	public Game(DiceSource dice) {
+		this.dice = dice;
+		board.setJournal(journal);
+		placeInitialUnits();
+	}
+
+	/**
+	 * Returns the game to its opening position so the instance can be played again.
+	 */
+	public void reset() {
+		gameStatus = IN_PROGRESS;
+		currentTurn = 1;
+		currentStep = UMOVE;
+		movedUnits.clear();
+		rotatedUnits.clear();
+		battledUnits.clear();
+		flagsHash = 0;
+		journal.clear();
+		placeInitialUnits();
+	}
+
+	/**
+	 * @return the game's current state, which any game can be restored to
+	 */
+	public GameSnapshot snapshot() {
+		return new GameSnapshot(board.snapshot(), gameStatus, currentTurn, currentStep,
+				(BitSet) movedUnits.clone(), (BitSet) rotatedUnits.clone(),
+				(BitSet) battledUnits.clone(),
+				flagsHash, getStateHash());
+	}
+
+	/**
+	 * Puts the game in the snapshot's state with a flat copy, for forking one position
+	 * into many games. Changes recorded for undo are dropped.
+	 */
+	public void restore(GameSnapshot snapshot) {
+		board.restore(snapshot.board);
+		gameStatus = snapshot.gameStatus;
+		currentTurn = snapshot.turn;
+		currentStep = snapshot.step;
+		copy(snapshot.movedUnits, movedUnits);
+		copy(snapshot.rotatedUnits, rotatedUnits);
+		copy(snapshot.battledUnits, battledUnits);
+		flagsHash = snapshot.flagsHash;
+		journal.clear();
+	}
+
+	private static void copy(BitSet from, BitSet to) {
+		to.clear();
+		to.or(from);
+	}
+
+	/**
+	 * Starts recording changes so they can be undone, for searches that try a move and
+	 * take it back rather than copy the game. Recording goes on until the game is undone
+	 * to its first checkpoint or reset.
+	 * @return the checkpoint to pass to undo
+	 */
+	public int checkpoint() {
+		journal.setRecording(true);
+		return journal.size();
+	}
+
+	/**
+	 * Takes back every change since the checkpoint, newest first, in time proportional
+	 * to the number of changes. Dice already rolled stay rolled.
+	 * @param checkpoint from checkpoint, still valid only if no earlier one was undone
+	 */
+	public void undo(int checkpoint) {
+		journal.setRecording(false);
+		for (int entry = journal.size() - 1; entry >= checkpoint; entry--) {
+			int id = journal.getId(entry);
+			switch (journal.getOp(entry)) {
+				case Journal.FLAG_SET:
+					getFlags(journal.getValue(entry)).clear(id);
+					flagsHash ^= Zobrist.flag(journal.getValue(entry), id);
+					break;
+				case Journal.FLAGS_CLEARED:
+					BitSet flags = (BitSet) journal.getObject(entry);
+					for (int flag = flags.nextSetBit(0); flag >= 0; flag = flags.nextSetBit(flag + 1))
+						flagsHash ^= Zobrist.flag(journal.getValue(entry), flag);
+					getFlags(journal.getValue(entry)).or(flags);
+					break;
+				case Journal.STEP_ENDED:
+					currentStep = GbgGameStep.values()[id];
+					currentTurn = journal.getValue(entry);
+					gameStatus = (GbgGameStatus) journal.getObject(entry);
+					break;
+				default:
+					board.undo(journal, entry);
+			}
+		}
+		journal.truncate(checkpoint);
+		journal.setRecording(checkpoint > 0);
 	}
 
 	@Override
 	public GbgGameStep endStep() {
-		if (isBattleStep(currentStep) && !battlesToResolve.isEmpty())
+		if (isBattleStep(currentStep) && !getBattlesToResolve().isEmpty())
 			throw new GbgInvalidActionException("Must resolve all battles before ending step");
+		journal.record(Journal.STEP_ENDED, currentStep.ordinal(), currentTurn, gameStatus);
 
 		board.removeStackedUnits();
 
@@ -78,52 +179,159 @@ public class Game implements GbgGame {
 		if (isMoveStep(currentStep))
 			placeReinforcements();
 
-		if (isBattleStep(currentStep))
-			battlesToResolve = getBattlesToResolve();
-
 		return currentStep;
 	}
 
 	@Override
 	public void moveUnit(GbgUnit unit, Coordinate from, Coordinate to) {
-		validateMove(unit, from, to);
-		board.moveUnit(makeUnit(unit), makeCell(to));
-		movedUnits.add(unit);
+		MoveStatus status = tryMoveUnit(unit, from, to);
+		if (status == MoveStatus.OFF_BOARD) {
+			// rethrow the GbgInvalidCoordinateException for whichever coordinate is off the board
+			makeCell(from);
+			makeCell(to);
+		}
+		if (status != MoveStatus.OK)
+			throw new GbgInvalidMoveException(describeMove(status, unit, from, to));
+	}
+
+	/**
+	 * Moves the unit like moveUnit, but reports a rejected move by its reason instead of
+	 * throwing, without allocating.
+	 * @return OK if the unit moved, otherwise why it did not
+	 */
+	public MoveStatus tryMoveUnit(GbgUnit unit, Coordinate from, Coordinate to) {
+		// range-check before interning: makeCell throws for coordinates off the board
+		if (!Cell.isOnBoard(from.getX(), from.getY()) || !Cell.isOnBoard(to.getX(), to.getY()))
+			return MoveStatus.OFF_BOARD;
+		MoveStatus status = checkMove(unit, makeCell(from), makeCell(to));
+		if (status == MoveStatus.OK) {
+			board.moveUnit(board.getUnit(UnitIds.find(unit)), makeCell(to));
+			setFlag(movedUnits, Zobrist.MOVED, unit);
+		}
+		return status;
 	}
 
 	@Override
 	public void setUnitFacing(GbgUnit unit, Direction direction) {
-		validateRotation(unit);
-		board.getUnit(unit).setFacing(direction);
-		rotatedUnits.add(unit);
+		MoveStatus status = trySetUnitFacing(unit, direction);
+		if (status != MoveStatus.OK)
+			throw new GbgInvalidMoveException(describeRotation(status, unit));
+	}
+
+	/**
+	 * Turns the unit like setUnitFacing, but reports a rejected turn by its reason
+	 * instead of throwing.
+	 * @return OK if the unit turned, otherwise why it did not
+	 */
+	public MoveStatus trySetUnitFacing(GbgUnit unit, Direction direction) {
+		MoveStatus status = checkRotation(unit);
+		if (status == MoveStatus.OK) {
+			board.setUnitFacing(unit, direction);
+			setFlag(rotatedUnits, Zobrist.ROTATED, unit);
+		}
+		return status;
 	}
 
 	@Override
-	public Collection<BattleDescriptor> getBattlesToResolve() {
-		BattleDescriptor battle = getBattleToResolve();
-		if (battle == null)
-			return emptyList();
-		return singletonList(battle);
-	}
-
-	private BattleDescriptor getBattleToResolve() {
-		// get units who need to battle still split by attackers/defenders
-		Stream<GbgUnit> units = board
-				.getUnitsInBattlePositions();
-		Map<Boolean, List<GbgUnit>> unitMap = units
-				.filter(hasBattled.negate())
-				.collect(Collectors.groupingBy(this::isTurnToAttack, Collectors.toList()));
-		if (unitMap.isEmpty())
-			return null;
-		return makeBattle(unitMap.get(true), unitMap.get(false));
+	public Collection<Coordinate> getPossibleMoves(GbgUnit unit) {
+		return getReachableSquares(unit).stream()
+				.mapToObj(Cell::fromIndex)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Compact form of getPossibleMoves, computed with a single flood fill.
+	 * @param unit the unit to move
+	 * @return the squares the unit may move to this step, by Cell.index()
+	 */
+	public BitSet getReachableSquares(GbgUnit unit) {
+		if (!isTurnToMove(unit) || hasMoved.test(unit) || whereIsUnit(unit) == null)
+			return new BitSet();
+		return (BitSet) board.getReachableCells(makeUnit(unit)).clone();
+	}
+
+	/**
+	 * Fills the buffer with every action the current player may take this step that the
+	 * engine would accept: in a move step each unit's moves to the squares it can reach
+	 * and its turns, in a battle step each battle whole and each of its defenders against
+	 * the attackers in contact with it. Ending the step is not listed, it is always allowed
+	 * in a move step and in a battle step once no battles are left.
+	 * @param actions cleared and filled, reuse it to avoid allocating
+	 * @return the number of actions
+	 */
+	public int generateActions(Actions actions) {
+		actions.clear(board);
+		if (isMoveStep(currentStep))
+			generateMoves(actions);
+		else
+			getBattlesToResolve().forEach(battle -> generateBattles(actions, battle));
+		return actions.size();
+	}
+
+	private void generateMoves(Actions actions) {
+		ArmyID armyID = getCurrentArmyID();
+		for (int id = board.nextUnitId(0); id >= 0; id = board.nextUnitId(id + 1)) {
+			Unit unit = board.getUnit(id);
+			if (unit.getArmy() != armyID)
+				continue;
+			if (!movedUnits.get(id)) {
+				BitSet reachable = board.getReachableCells(unit);
+				for (int index = reachable.nextSetBit(0); index >= 0; index = reachable.nextSetBit(index + 1))
+					actions.addMove(id, index);
+			}
+			if (!rotatedUnits.get(id))
+				actions.addFacings(id);
+		}
+	}
+
+	private void generateBattles(Actions actions, BattleDescriptor battle) {
+		actions.addBattle(battle.getAttackers(), battle.getDefenders());
+		if (battle.getDefenders().size() < 2)
+			return;
+		for (GbgUnit defender : battle.getDefenders()) {
+			List<GbgUnit> attackers = new ArrayList<>();
+			for (GbgUnit attacker : battle.getAttackers()) {
+				if (board.isInContact(UnitIds.find(attacker), UnitIds.find(defender)))
+					attackers.add(attacker);
+			}
+			if (!attackers.isEmpty())
+				actions.addBattle(attackers, singletonList(defender));
+		}
+	}
+
+	/**
+	 * Each independent engagement is its own battle, so a battle holds only the units
+	 * that are actually fighting each other.
+	 */
+	@Override
+	public List<BattleDescriptor> getBattlesToResolve() {
+		List<BattleDescriptor> battles = new ArrayList<>();
+		for (List<Unit> engagement : board.getEngagements())
+			addBattle(battles, engagement);
+		return battles;
+	}
+
+	private void addBattle(List<BattleDescriptor> battles, Collection<? extends GbgUnit> units) {
+		List<GbgUnit> attackers = new ArrayList<>();
+		List<GbgUnit> defenders = new ArrayList<>();
+		for (GbgUnit unit : units) {
+			if (hasBattled.test(unit))
+				continue;
+			if (isTurnToAttack(unit))
+				attackers.add(unit);
+			else
+				defenders.add(unit);
+		}
+		if (!attackers.isEmpty() || !defenders.isEmpty())
+			battles.add(makeBattle(attackers, defenders));
 	}
 
 	@Override
 	public BattleResolution resolveBattle(BattleDescriptor battleDescriptor) {
 		validatePartialBattle(battleDescriptor);
 		// track battled units
-		battledUnits.addAll(battleDescriptor.getAttackers());
-		battledUnits.addAll(battleDescriptor.getDefenders());
+		battleDescriptor.getAttackers().forEach(unit -> setFlag(battledUnits, Zobrist.BATTLED, unit));
+		battleDescriptor.getDefenders().forEach(unit -> setFlag(battledUnits, Zobrist.BATTLED, unit));
 		Resolution resolution = getResolution(battleDescriptor);
 		// move retreating units
 		if (resolution.isRetreat())
@@ -135,7 +343,7 @@ public class Game implements GbgGame {
 	}
 
 	Resolution getResolution(BattleDescriptor battleDescriptor) {
-		return makeResolution(battleDescriptor);
+		return makeResolution(battleDescriptor, dice);
 	}
 
 	private void retreatUnits(Collection<Unit> units) {
@@ -149,20 +357,16 @@ public class Game implements GbgGame {
 	}
 
 	private void validatePartialBattle(BattleDescriptor partialBattle) {
-		BattleDescriptor battle = getBattleToResolve();
-		if (battle == null)
+		List<BattleDescriptor> battles = getBattlesToResolve();
+		if (battles.isEmpty())
 			throw invalidBattle("No battles to resolve");
-		validateBattleUnits(partialBattle.getAttackers(), battle.getAttackers(), "attack");
-		validateBattleUnits(partialBattle.getDefenders(), battle.getDefenders(), "defend");
-	}
-
-	private void validateBattleUnits(Collection<GbgUnit> unitsToValidate, Collection<GbgUnit> validUnits,
-									 String verb) {
-		unitsToValidate.forEach(unit -> {
-			if (!validUnits.contains(unit)) {
-				throw invalidBattle(unit + " cannot " + verb);
-			}
-		});
+		// every attacker and defender must come from the same battle
+		for (BattleDescriptor battle : battles) {
+			if (battle.getAttackers().containsAll(partialBattle.getAttackers())
+					&& battle.getDefenders().containsAll(partialBattle.getDefenders()))
+				return;
+		}
+		throw invalidBattle("Units are not attacking and defending in one battle");
 	}
 
 	private GbgInvalidActionException invalidBattle(String msg) {
@@ -171,7 +375,7 @@ public class Game implements GbgGame {
 
 	@Override
 	public Direction getUnitFacing(GbgUnit unit) {
-		return board.getUnit(unit).getFacing();
+		return board.getUnitFacing(unit);
 	}
 
 	@Override
@@ -213,31 +417,77 @@ public class Game implements GbgGame {
 		return currentTurn;
 	}
 
+	/**
+	 * A 64-bit Zobrist hash of the game state: where every unit is and which way it faces,
+	 * the turn, step and status, and which units have moved, turned, fought or must fight.
+	 * Equal states hash equal however they were reached, so the hash can key transposition
+	 * tables or deduplicate positions. It is kept up to date as the game changes and costs
+	 * nothing to read.
+	 */
+	public long getStateHash() {
+		return board.getHash() ^ flagsHash
+				^ Zobrist.turn(currentTurn) ^ Zobrist.step(currentStep) ^ Zobrist.status(gameStatus);
+	}
+
 	// private
 
-	private void validateMove(GbgUnit unit, Coordinate fromCoord, Coordinate toCoord) {
-		Cell from = makeCell(fromCoord);
-		Cell to = makeCell(toCoord);
+	private MoveStatus checkMove(GbgUnit unit, Cell from, Cell to) {
 		if (!isTurnToMove(unit))
-			throw new GbgInvalidMoveException("Tried to move " + unit + " when " + currentStep);
+			return MoveStatus.WRONG_STEP;
 		if (hasMoved.test(unit))
-			throw new GbgInvalidMoveException("Tried to move " + unit + " twice in turn");
-		if (!from.equals(whereIsUnit(unit)))
-			throw new GbgInvalidMoveException("Invalid FROM coordinate");
-		Integer distance = from.distanceTo(to);
-		if (distance > unit.getMovementFactor())
-			throw new GbgInvalidMoveException("Tried to move " + unit + " " + distance + " squares");
+			return MoveStatus.ALREADY_MOVED;
+		Unit boardUnit = board.getUnit(UnitIds.find(unit));
+		if (boardUnit == null || !from.equals(board.getUnitPosition(boardUnit)))
+			return MoveStatus.NOT_AT_FROM;
+		if (from.distanceTo(to) > unit.getMovementFactor())
+			return MoveStatus.TOO_FAR;
 		if (board.cellIsOccupied.test(to))
-			throw new GbgInvalidMoveException("Tried to move " + unit + " to occupied square");
-		if (!board.hasPath(makeUnit(unit), to, unit.getMovementFactor()))
-			throw new GbgInvalidMoveException("Could not find a valid path to destination");
+			return MoveStatus.OCCUPIED;
+		if (!board.getReachableCells(boardUnit).get(to.index()))
+			return MoveStatus.NO_PATH;
+		return MoveStatus.OK;
 	}
 
-	private void validateRotation(GbgUnit unit) {
+	private MoveStatus checkRotation(GbgUnit unit) {
 		if (!isTurnToMove(unit))
-			throw new GbgInvalidMoveException("Tried to turn " + unit + " when " + currentStep);
+			return MoveStatus.WRONG_STEP;
 		if (hasRotated.test(unit))
-			throw new GbgInvalidMoveException("Tried to rotate " + unit + " twice in turn");
+			return MoveStatus.ALREADY_TURNED;
+		if (board.getUnit(UnitIds.find(unit)) == null)
+			return MoveStatus.NOT_ON_BOARD;
+		return MoveStatus.OK;
+	}
+
+	private String describeMove(MoveStatus status, GbgUnit unit, Coordinate from, Coordinate to) {
+		switch (status) {
+			case WRONG_STEP:
+				return "Tried to move " + unit + " when " + currentStep;
+			case ALREADY_MOVED:
+				return "Tried to move " + unit + " twice in turn";
+			case NOT_AT_FROM:
+				return "Invalid FROM coordinate";
+			case TOO_FAR:
+				return "Tried to move " + unit + " " + makeCell(from).distanceTo(to) + " squares";
+			case OCCUPIED:
+				return "Tried to move " + unit + " to occupied square";
+			default:
+				return "Could not find a valid path to destination";
+		}
+	}
+
+	private String describeRotation(MoveStatus status, GbgUnit unit) {
+		switch (status) {
+			case WRONG_STEP:
+				return "Tried to turn " + unit + " when " + currentStep;
+			case ALREADY_TURNED:
+				return "Tried to rotate " + unit + " twice in turn";
+			default:
+				return "Could not find unit: " + unit;
+		}
+	}
+
+	private void placeInitialUnits() {
+		scenario.setUp(board);
 	}
 
 	private void placeReinforcements() {
@@ -245,18 +495,34 @@ public class Game implements GbgGame {
 	}
 
 	private void placeReinforcements(ArmyID armyID, Integer turn) {
-		reinforcements
-				.get(armyID, turn)
-				.forEach(unitInitializer -> board.placeUnit(unitInitializer));
+		for (UnitInitializer unitInitializer : scenario.getReinforcements().getArrivals(armyID, turn))
+			board.placeUnit(unitInitializer);
 	}
 
 	private void endTurn() {
-		movedUnits.clear();
-		rotatedUnits.clear();
-		battledUnits.clear();
+		clearFlags(movedUnits, Zobrist.MOVED);
+		clearFlags(rotatedUnits, Zobrist.ROTATED);
+		clearFlags(battledUnits, Zobrist.BATTLED);
 		incrementTurn();
 	}
 
+	private void setFlag(BitSet flags, int kind, GbgUnit unit) {
+		int id = UnitIds.find(unit);
+		if (id >= 0 && !flags.get(id)) {
+			journal.record(Journal.FLAG_SET, id, kind, null);
+			flags.set(id);
+			flagsHash ^= Zobrist.flag(kind, id);
+		}
+	}
+
+	private void clearFlags(BitSet flags, int kind) {
+		if (journal.isRecording() && !flags.isEmpty())
+			journal.record(Journal.FLAGS_CLEARED, 0, kind, flags.clone());
+		for (int id = flags.nextSetBit(0); id >= 0; id = flags.nextSetBit(id + 1))
+			flagsHash ^= Zobrist.flag(kind, id);
+		flags.clear();
+	}
+
 	private void incrementTurn() {
 		Integer nextTurn = getNextTurn(currentTurn);
 		if (isLastTurnInGame(nextTurn))
@@ -318,11 +584,30 @@ public class Game implements GbgGame {
 		}
 	}
 
-	private final Predicate<GbgUnit> hasMoved = (unit) -> movedUnits.contains(unit);
+	private BitSet getFlags(int kind) {
+		switch (kind) {
+			case Zobrist.MOVED:
+				return movedUnits;
+			case Zobrist.ROTATED:
+				return rotatedUnits;
+			case Zobrist.BATTLED:
+				return battledUnits;
+			default:
+				throw new IllegalArgumentException("Not a flag kind: " + kind);
+		}
+	}
 
-	private final Predicate<GbgUnit> hasRotated = (unit) -> rotatedUnits.contains(unit);
+	private final Predicate<GbgUnit> hasMoved = (unit) -> hasFlag(movedUnits, unit);
 
-	private final Predicate<GbgUnit> hasBattled = (unit) -> battledUnits.contains(unit);
+	private final Predicate<GbgUnit> hasRotated = (unit) -> hasFlag(rotatedUnits, unit);
+
+	private final Predicate<GbgUnit> hasBattled = (unit) -> hasFlag(battledUnits, unit);
+
+	private static boolean hasFlag(BitSet flags, GbgUnit unit) {
+		// units that were never placed have no id and no flags
+		int id = UnitIds.find(unit);
+		return id >= 0 && flags.get(id);
+	}
 
 	private Boolean isTurnToMove(GbgUnit unit) {
 		GbgGameStep move = (unit.getArmy() == UNION) ? UMOVE : CMOVE;
@@ -0,0 +1,116 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.ArmyID;
+import gettysburg.common.BattleDescriptor;
+import gettysburg.common.GbgGameStep;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static gettysburg.common.GbgGameStatus.IN_PROGRESS;
+import static gettysburg.common.GbgGameStep.CMOVE;
+import static gettysburg.common.GbgGameStep.UBATTLE;
+import static gettysburg.common.GbgGameStep.UMOVE;
+
+/**
+ * Plays whole games headless with a move and battle policy per army, reusing one
+ * game instance for every playout. Policies only ever see legal choices, so the
+ * engine's validation never throws during a simulation.
+ */
+public class GameSimulator {
+
+    private final Game game;
+    private final Map<ArmyID, MovePolicy> movePolicies = new EnumMap<>(ArmyID.class);
+    private final Map<ArmyID, BattlePolicy> battlePolicies = new EnumMap<>(ArmyID.class);
+    private final Casualties casualties = new Casualties();
+
+    private GameSimulator(MovePolicy unionMoves, BattlePolicy unionBattles,
+                          MovePolicy confederateMoves, BattlePolicy confederateBattles, DiceSource dice) {
+        game = new Game(dice);
+        movePolicies.put(UNION, unionMoves);
+        movePolicies.put(CONFEDERATE, confederateMoves);
+        battlePolicies.put(UNION, unionBattles);
+        battlePolicies.put(CONFEDERATE, confederateBattles);
+    }
+
+    public static GameSimulator makeGameSimulator(MovePolicy unionMoves, BattlePolicy unionBattles,
+                                                  MovePolicy confederateMoves, BattlePolicy confederateBattles) {
+        return makeGameSimulator(unionMoves, unionBattles, confederateMoves, confederateBattles, Resolution::rollDie);
+    }
+
+    /**
+     * @param dice rolls every battle, only ever called from the simulating thread
+     */
+    public static GameSimulator makeGameSimulator(MovePolicy unionMoves, BattlePolicy unionBattles,
+                                                  MovePolicy confederateMoves, BattlePolicy confederateBattles,
+                                                  DiceSource dice) {
+        return new GameSimulator(unionMoves, unionBattles, confederateMoves, confederateBattles, dice);
+    }
+
+    /**
+     * Plays the given number of games to the end.
+     */
+    public SimulationResults simulate(int games) {
+        SimulationResults results = new SimulationResults();
+        for (int i = 0; i < games; i++)
+            playGame(results);
+        return results;
+    }
+
+    /**
+     * Plays one game from the opening position and adds its outcome to the results.
+     */
+    public void playGame(SimulationResults results) {
+        game.reset();
+        casualties.clear();
+        while (game.getGameStatus() == IN_PROGRESS) {
+            // every step starts after reinforcements arrive and before any unit is lost
+            casualties.see(game.board);
+            GbgGameStep step = game.getCurrentStep();
+            ArmyID armyID = getArmy(step);
+            if (isMoveStep(step))
+                moveUnits(armyID);
+            else
+                resolveBattles(armyID);
+            game.endStep();
+        }
+        results.record(game.getGameStatus(),
+                casualties.count(UNION, game.board), casualties.count(CONFEDERATE, game.board));
+    }
+
+    private void moveUnits(ArmyID armyID) {
+        MovePolicy policy = movePolicies.get(armyID);
+        for (Unit unit : game.board.getUnits()) {
+            if (unit.getArmy() != armyID)
+                continue;
+            BitSet reachable = game.board.getReachableCells(unit);
+            int to = policy.chooseMove(game, unit, reachable);
+            if (to >= 0 && reachable.get(to))
+                game.moveUnit(unit, game.board.getUnitPosition(unit), Cell.fromIndex(to));
+            gettysburg.common.Direction facing = policy.chooseFacing(game, unit);
+            if (facing != null)
+                game.setUnitFacing(unit, facing);
+        }
+    }
+
+    private void resolveBattles(ArmyID armyID) {
+        BattlePolicy policy = battlePolicies.get(armyID);
+        Collection<BattleDescriptor> battles = game.getBattlesToResolve();
+        while (!battles.isEmpty()) {
+            game.resolveBattle(policy.chooseBattle(game, battles.iterator().next()));
+            battles = game.getBattlesToResolve();
+        }
+    }
+
+    private static boolean isMoveStep(GbgGameStep step) {
+        return step == UMOVE || step == CMOVE;
+    }
+
+    private static ArmyID getArmy(GbgGameStep step) {
+        return step == UMOVE || step == UBATTLE ? UNION : CONFEDERATE;
+    }
+}
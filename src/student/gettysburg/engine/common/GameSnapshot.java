@@ -0,0 +1,46 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.GbgGameStatus;
+import gettysburg.common.GbgGameStep;
+
+import java.util.BitSet;
+
+/**
+ * A game's state at one moment, taken by Game.snapshot and put back by Game.restore,
+ * into the same game or any other. It is held as flat arrays and frozen units and never
+ * changes, so one snapshot can be shared by every thread forking games from it.
+ */
+public final class GameSnapshot {
+
+    final Board.Snapshot board;
+    final GbgGameStatus gameStatus;
+    final int turn;
+    final GbgGameStep step;
+    final BitSet movedUnits;
+    final BitSet rotatedUnits;
+    final BitSet battledUnits;
+    final long flagsHash;
+    private final long stateHash;
+
+    GameSnapshot(Board.Snapshot board, GbgGameStatus gameStatus, int turn, GbgGameStep step,
+                 BitSet movedUnits, BitSet rotatedUnits, BitSet battledUnits,
+                 long flagsHash, long stateHash) {
+        this.board = board;
+        this.gameStatus = gameStatus;
+        this.turn = turn;
+        this.step = step;
+        this.movedUnits = movedUnits;
+        this.rotatedUnits = rotatedUnits;
+        this.battledUnits = battledUnits;
+        this.flagsHash = flagsHash;
+        this.stateHash = stateHash;
+    }
+
+    /**
+     * @return the state hash of the game when the snapshot was taken
+     * @see Game#getStateHash()
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+}
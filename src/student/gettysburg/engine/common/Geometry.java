@@ -0,0 +1,45 @@
+package student.gettysburg.engine.common;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Board geometry precomputed by Cell.index(), so neighbor and zone of control
+ * queries are array reads. Cells off the board are clipped from every table.
+ * The returned arrays are shared and must not be modified.
+ */
+final class Geometry {
+
+    private static final int[][] neighbors = new int[Cell.COUNT][];
+    private static final int[][][] zonesOfControl = new int[Cell.COUNT][Direction.values().length][];
+
+    static {
+        for (int index = 0; index < Cell.COUNT; index++) {
+            int cell = index;
+            neighbors[index] = Arrays.stream(Direction.compass())
+                    .mapToInt(direction -> Cell.adjacentIndex(cell, direction))
+                    .filter(adjacent -> adjacent >= 0)
+                    .toArray();
+            for (Direction facing : Direction.values()) {
+                // 3 cells where a unit is facing, only its own cell when facing NONE
+                zonesOfControl[index][facing.ordinal()] = IntStream.range(-1, 2)
+                        .mapToObj(facing::rotate)
+                        .mapToInt(direction -> Cell.adjacentIndex(cell, direction))
+                        .filter(adjacent -> adjacent >= 0)
+                        .distinct()
+                        .toArray();
+            }
+        }
+    }
+
+    private Geometry() {
+    }
+
+    static int[] neighbors(int index) {
+        return neighbors[index];
+    }
+
+    static int[] zoneOfControl(int index, Direction facing) {
+        return zonesOfControl[index][facing.ordinal()];
+    }
+}
@@ -0,0 +1,93 @@
+package student.gettysburg.engine.common;
+
+import java.util.Arrays;
+
+/**
+ * A stack of inverse deltas, one entry per change to a game, so the changes can be
+ * undone newest first in time proportional to their number. An entry is an operation
+ * code, a unit id, an int value and an object, whose meaning depends on the operation.
+ * Nothing is recorded until recording is switched on.
+ */
+final class Journal {
+
+    // board operations, undone by Board
+    static final int PLACED = 0;
+    // value is the cell the unit moved from
+    static final int MOVED = 1;
+    // object is the unit before it turned
+    static final int TURNED = 2;
+    // value is the unit's cell, object the unit
+    static final int REMOVED = 3;
+    // game operations, undone by Game
+    // value is the Zobrist flag kind
+    static final int FLAG_SET = 4;
+    // value is the Zobrist flag kind, object a copy of the cleared flags
+    static final int FLAGS_CLEARED = 5;
+    // id is the step ordinal, value the turn and object the status before the step ended
+    static final int STEP_ENDED = 6;
+
+    private static final int FIELDS = 3;
+
+    private int[] entries = new int[0];
+    private Object[] objects = new Object[0];
+    private int size;
+    private boolean recording;
+
+    boolean isRecording() {
+        return recording;
+    }
+
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    void record(int op, int id, int value, Object object) {
+        if (!recording)
+            return;
+        if (size == objects.length) {
+            int length = Math.max(16, size * 2);
+            entries = Arrays.copyOf(entries, length * FIELDS);
+            objects = Arrays.copyOf(objects, length);
+        }
+        entries[size * FIELDS] = op;
+        entries[size * FIELDS + 1] = id;
+        entries[size * FIELDS + 2] = value;
+        objects[size++] = object;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getOp(int entry) {
+        return entries[entry * FIELDS];
+    }
+
+    int getId(int entry) {
+        return entries[entry * FIELDS + 1];
+    }
+
+    int getValue(int entry) {
+        return entries[entry * FIELDS + 2];
+    }
+
+    Object getObject(int entry) {
+        return objects[entry];
+    }
+
+    /**
+     * Drops the entries from the given one on.
+     */
+    void truncate(int entry) {
+        Arrays.fill(objects, entry, size, null);
+        size = entry;
+    }
+
+    /**
+     * Drops every entry and stops recording.
+     */
+    void clear() {
+        truncate(0);
+        recording = false;
+    }
+}
@@ -0,0 +1,23 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.Direction;
+import gettysburg.common.GbgUnit;
+
+import java.util.BitSet;
+
+/**
+ * Decides the moves of one army in a simulated game.
+ */
+public interface MovePolicy {
+
+    /**
+     * @param reachable squares the unit may move to by Cell.index(), shared and must not be modified
+     * @return the Cell.index() to move to, or -1 to stay in place
+     */
+    int chooseMove(Game game, GbgUnit unit, BitSet reachable);
+
+    /**
+     * @return the direction to face after moving, or null to keep the current facing
+     */
+    Direction chooseFacing(Game game, GbgUnit unit);
+}
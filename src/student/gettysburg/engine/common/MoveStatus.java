@@ -0,0 +1,20 @@
+package student.gettysburg.engine.common;
+
+/**
+ * Why Game.tryMoveUnit or Game.trySetUnitFacing did or did not accept a move.
+ */
+public enum MoveStatus {
+    OK,
+    // the from or to coordinates lie outside the board
+    OFF_BOARD,
+    // it is not the unit's army's move step
+    WRONG_STEP,
+    ALREADY_MOVED,
+    ALREADY_TURNED,
+    NOT_ON_BOARD,
+    // the unit is not on the square it is said to move from
+    NOT_AT_FROM,
+    TOO_FAR,
+    OCCUPIED,
+    NO_PATH
+}
@@ -0,0 +1,98 @@
+package student.gettysburg.engine.common;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs simulated games across a fork/join pool. Games are dealt out in fixed size
+ * shards, each played by its own simulator with its own random stream split from
+ * the seed, so results depend only on the seed and the number of games, never on
+ * the number of threads or how the shards were scheduled.
+ */
+public class ParallelSimulator {
+
+    static final int GAMES_PER_SHARD = 16;
+
+    /**
+     * Builds the simulator for one shard. Everything random in it, policies and dice,
+     * should draw from the given stream, which is never shared with another shard.
+     */
+    @FunctionalInterface
+    public interface SimulatorFactory {
+        GameSimulator makeSimulator(SplittableRandom random);
+    }
+
+    private final SimulatorFactory factory;
+    private final ForkJoinPool pool;
+
+    private ParallelSimulator(SimulatorFactory factory, ForkJoinPool pool) {
+        this.factory = factory;
+        this.pool = pool;
+    }
+
+    public static ParallelSimulator makeParallelSimulator(SimulatorFactory factory, ForkJoinPool pool) {
+        return new ParallelSimulator(factory, pool);
+    }
+
+    /**
+     * @return a runner on the common pool, which uses every core but one
+     */
+    public static ParallelSimulator makeParallelSimulator(SimulatorFactory factory) {
+        return makeParallelSimulator(factory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays the given number of games and merges the results of every shard.
+     */
+    public SimulationResults simulate(int games, long seed) {
+        int shards = (games + GAMES_PER_SHARD - 1) / GAMES_PER_SHARD;
+        if (shards == 0)
+            return new SimulationResults();
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom[] shardRandoms = new SplittableRandom[shards];
+        for (int i = 0; i < shards; i++)
+            shardRandoms[i] = random.split();
+        return pool.invoke(new Shards(factory, games, shardRandoms, 0, shards));
+    }
+
+    private static class Shards extends RecursiveTask<SimulationResults> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SimulatorFactory factory;
+        private final int games;
+        private final SplittableRandom[] randoms;
+        private final int from;
+        private final int to;
+
+        Shards(SimulatorFactory factory, int games, SplittableRandom[] randoms, int from, int to) {
+            this.factory = factory;
+            this.games = games;
+            this.randoms = randoms;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResults compute() {
+            if (to - from == 1)
+                return playShard(from);
+            int middle = (from + to) >>> 1;
+            Shards right = new Shards(factory, games, randoms, middle, to);
+            right.fork();
+            SimulationResults results = new Shards(factory, games, randoms, from, middle).compute();
+            results.merge(right.join());
+            return results;
+        }
+
+        private SimulationResults playShard(int shard) {
+            SimulationResults results = new SimulationResults();
+            int shardGames = Math.min(GAMES_PER_SHARD, games - shard * GAMES_PER_SHARD);
+            GameSimulator simulator = factory.makeSimulator(randoms[shard]);
+            for (int i = 0; i < shardGames; i++)
+                simulator.playGame(results);
+            return results;
+        }
+    }
+}
@@ -1,73 +1,83 @@
-/**
- * This A* algorithm has been adapted from https://github.com/ateamwpi/HospitalKiosk/blob/master/src/models/path/algo/AStar.java
- */
 package student.gettysburg.engine.common;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.function.Function;
+import java.util.Arrays;
+import java.util.BitSet;
 
+/**
+ * Bounded breadth-first search over cell indices. Every step costs a single
+ * movement point, so the FIFO queue holds at most two distance buckets at a time
+ * and cells are expanded in order of distance. The search state is kept in arrays
+ * that are reused between searches, so a search does not allocate.
+ */
 class PathFinder {
 
-    static Boolean find(Cell start, Cell end, Integer maxPathLength, Function<Cell, Collection<Cell>> getConnections) {
-        LinkedList<Cell> closedSet = new LinkedList<>();
-        LinkedList<Cell> openSet  = new LinkedList<>();
-        HashMap<Cell, Cell> cameFrom  = new HashMap<>();
-        HashMap<Cell, Double> gScore  = new HashMap<>();
-        HashMap<Cell, Double> fScore  = new HashMap<>();
+    private final Board board;
+    // search state by Cell.index(), only valid where visits[cell] == visit
+    private final int[] queue = new int[Cell.COUNT];
+    private final int[] distances = new int[Cell.COUNT];
+    private final int[] visits = new int[Cell.COUNT];
+    private int visit;
 
-        openSet.add(start);
-        fScore.put(start, (double) start.distanceTo(end));
-        gScore.put(start, 0.0);
-
-        while(!openSet.isEmpty()){
-            // choose next best node in open set
-            Cell current = openSet.getFirst();
-            for (Cell n : openSet) {
-                if (fScore.get(n) < fScore.get(current)) {
-                    current = n;
-                }
-            }
+    PathFinder(Board board) {
+        this.board = board;
+    }
 
-            // goal check
-            if(current.equals(end)) {
-                return true;
-            }
-            openSet.remove(current);
-            closedSet.add(current);
+    boolean find(Unit unit, int start, int end, int maxPathLength) {
+        if (start == end)
+            return true;
+        return search(unit, start, end, maxPathLength, null);
+    }
 
-            // max length check
-            Integer pathLen = pathLength(cameFrom, current);
-            if (pathLen > maxPathLength)
-                continue; // do not look for neighbors
+    /**
+     * Flood fills every cell the unit can enter within maxPathLength steps.
+     * @param reachable set to the indices of the cells reached, excluding start
+     */
+    void reach(Unit unit, int start, int maxPathLength, BitSet reachable) {
+        reachable.clear();
+        search(unit, start, -1, maxPathLength, reachable);
+    }
 
-            Collection<Cell> connections = getConnections.apply(current);
-            for(Cell cell: connections) {
-                if(closedSet.contains(cell))
-                    continue;
+    private boolean search(Unit unit, int start, int end, int maxPathLength, BitSet reached) {
+        startVisit();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        markVisited(start, 0);
 
-                Double score = gScore.get(current) + current.distanceTo(cell);
-                if(!openSet.contains(cell))
-                    openSet.add(cell);
-                else if(score >= gScore.get(cell))
+        while (head < tail) {
+            int current = queue[head++];
+            int distance = distances[current];
+            // do not look for neighbors past the max length or out of a ZOC
+            if (distance >= maxPathLength || !board.canMoveFrom(unit, current))
+                continue;
+            for (int next : Geometry.neighbors(current)) {
+                if (isVisited(next) || !board.canMoveInto(unit, next))
                     continue;
-
-                cameFrom.put(cell, current);
-                gScore.put(cell, score);
-                fScore.put(cell, score + cell.distanceTo(end));
+                if (next == end)
+                    return true;
+                if (reached != null)
+                    reached.set(next);
+                markVisited(next, distance + 1);
+                queue[tail++] = next;
             }
         }
         return false;
     }
 
-    private static Integer pathLength(HashMap<Cell, Cell> cameFrom, Cell end) {
-        Cell current = end;
-        Integer length = 0;
-        while(cameFrom.keySet().contains(current)){
-            current = cameFrom.get(current);
-            length++;
+    private void startVisit() {
+        if (++visit == 0) {
+            // stamps wrapped around, forget all previous searches
+            Arrays.fill(visits, 0);
+            visit = 1;
         }
-        return length;
+    }
+
+    private boolean isVisited(int cell) {
+        return visits[cell] == visit;
+    }
+
+    private void markVisited(int cell, int distance) {
+        visits[cell] = visit;
+        distances[cell] = distance;
     }
 }
@@ -0,0 +1,46 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.GbgUnit;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Moves every unit that can move to a uniformly random reachable square and
+ * turns it to a random compass direction.
+ */
+public class RandomMovePolicy implements MovePolicy {
+
+    private static final gettysburg.common.Direction[] facings = new gettysburg.common.Direction[Direction.compass().length];
+
+    static {
+        for (int i = 0; i < facings.length; i++)
+            facings[i] = Direction.compass()[i].getOriginal();
+    }
+
+    private final SplittableRandom random;
+
+    private RandomMovePolicy(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public static RandomMovePolicy makeRandomMovePolicy(SplittableRandom random) {
+        return new RandomMovePolicy(random);
+    }
+
+    @Override
+    public int chooseMove(Game game, GbgUnit unit, BitSet reachable) {
+        int count = reachable.cardinality();
+        if (count == 0)
+            return -1;
+        int index = reachable.nextSetBit(0);
+        for (int skip = random.nextInt(count); skip > 0; skip--)
+            index = reachable.nextSetBit(index + 1);
+        return index;
+    }
+
+    @Override
+    public gettysburg.common.Direction chooseFacing(Game game, GbgUnit unit) {
+        return facings[random.nextInt(facings.length)];
+    }
+}
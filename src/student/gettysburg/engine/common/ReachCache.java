@@ -0,0 +1,91 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.GbgBoard;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reachable cells per unit, kept until the board changes within the unit's range.
+ * Board changes are only recorded as dirty cells and matched against the entries on
+ * the next lookup, so a burst of changes costs a single pass over the cache.
+ */
+class ReachCache {
+
+    // entries by unit id
+    private Entry[] entries = new Entry[UnitIds.count()];
+    private final BitSet dirtyCells = new BitSet(Cell.COUNT);
+
+    /**
+     * @return the cached cells for the unit at origin, or null if they must be recomputed
+     */
+    BitSet get(Unit unit, int origin, Direction facing) {
+        invalidateDirtyEntries();
+        int id = unit.getId();
+        Entry entry = id < entries.length ? entries[id] : null;
+        if (entry == null || !entry.isFor(unit, origin, facing))
+            return null;
+        return entry.cells;
+    }
+
+    void put(Unit unit, int origin, Direction facing, BitSet cells) {
+        int id = unit.getId();
+        if (id >= entries.length)
+            entries = Arrays.copyOf(entries, Math.max(id + 1, entries.length * 2));
+        entries[id] = new Entry(unit, origin, facing, cells);
+    }
+
+    void markDirty(int index) {
+        dirtyCells.set(index);
+    }
+
+    void clear() {
+        Arrays.fill(entries, null);
+        dirtyCells.clear();
+    }
+
+    private void invalidateDirtyEntries() {
+        if (dirtyCells.isEmpty())
+            return;
+        for (int id = 0; id < entries.length; id++) {
+            if (entries[id] != null && entries[id].isDirty(dirtyCells))
+                entries[id] = null;
+        }
+        dirtyCells.clear();
+    }
+
+    private static class Entry {
+        private final int origin;
+        private final Direction facing;
+        private final int movementFactor;
+        private final BitSet cells;
+
+        private Entry(Unit unit, int origin, Direction facing, BitSet cells) {
+            this.origin = origin;
+            this.facing = facing;
+            this.movementFactor = unit.getMovementFactor();
+            this.cells = cells;
+        }
+
+        private boolean isFor(Unit unit, int origin, Direction facing) {
+            return this.origin == origin
+                    && this.facing == facing
+                    && movementFactor == unit.getMovementFactor();
+        }
+
+        private boolean isDirty(BitSet dirtyCells) {
+            // occupancy and control can matter up to one square past the last step
+            int range = movementFactor + 1;
+            int x = origin % GbgBoard.COLUMNS;
+            int y = origin / GbgBoard.COLUMNS;
+            int minX = Math.max(x - range, 0);
+            int maxX = Math.min(x + range, GbgBoard.COLUMNS - 1);
+            for (int row = Math.max(y - range, 0); row <= Math.min(y + range, GbgBoard.ROWS - 1); row++) {
+                int dirty = dirtyCells.nextSetBit(row * GbgBoard.COLUMNS + minX);
+                if (dirty >= 0 && dirty <= row * GbgBoard.COLUMNS + maxX)
+                    return true;
+            }
+            return false;
+        }
+    }
+}
@@ -3,34 +3,53 @@ package student.gettysburg.engine.common;
 import gettysburg.common.ArmyID;
 import student.gettysburg.engine.utility.configure.UnitInitializer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toMap;
+/**
+ * The order of battle compiled into an arrival schedule: for each army, an array
+ * indexed by turn of the units arriving that turn. It is immutable and holds no game
+ * state, so every game can share one.
+ */
+final class Reinforcements {
 
+    private static final UnitInitializer[] NO_UNITS = new UnitInitializer[0];
 
-class Reinforcements {
-
-
-    private Map<ArmyID, Map<Integer, Stream<UnitInitializer>>> armyTurnMap = new HashMap<>();
+    // arrivals by army ordinal then turn, each in order of battle
+    private final UnitInitializer[][][] schedule = new UnitInitializer[ArmyID.values().length][][];
 
     private Reinforcements(Stream<UnitInitializer> unitInitializers) {
-        armyTurnMap =
-                unitInitializers.collect(
-                        groupingBy(UnitInitializer::getArmyID,
-                                toMap(UnitInitializer::getTurn, Stream::of, Stream::concat)));
+        List<UnitInitializer> units = unitInitializers.collect(Collectors.toList());
+        int turns = 1 + units.stream().mapToInt(UnitInitializer::getTurn).max().orElse(0);
+        for (ArmyID armyID : ArmyID.values()) {
+            UnitInitializer[][] arrivals = new UnitInitializer[turns][];
+            for (int turn = 0; turn < turns; turn++) {
+                int arrivalTurn = turn;
+                arrivals[turn] = units.stream()
+                        .filter(unit -> unit.getArmyID() == armyID && unit.getTurn() == arrivalTurn)
+                        .toArray(UnitInitializer[]::new);
+            }
+            schedule[armyID.ordinal()] = arrivals;
+        }
     }
 
     static Reinforcements makeReinforcements(Stream<UnitInitializer> unitInitializers) {
         return new Reinforcements(unitInitializers);
     }
 
+    /**
+     * @return the units arriving on the turn, shared and must not be modified
+     */
+    UnitInitializer[] getArrivals(ArmyID armyID, int turn) {
+        UnitInitializer[][] arrivals = schedule[armyID.ordinal()];
+        if (turn < 0 || turn >= arrivals.length)
+            return NO_UNITS;
+        return arrivals[turn];
+    }
+
     Stream<UnitInitializer> get(ArmyID armyID, Integer turn) {
-        Stream<UnitInitializer> unitInitializers = armyTurnMap.get(armyID).get(turn);
-        if (unitInitializers == null)
-            return Stream.empty();
-        return unitInitializers;
+        return Arrays.stream(getArrivals(armyID, turn));
     }
 }
@@ -0,0 +1,58 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.ArmyID;
+import student.gettysburg.engine.utility.configure.UnitInitializer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static student.gettysburg.engine.common.Reinforcements.makeReinforcements;
+import static student.gettysburg.engine.utility.configure.BattleOrder.getBattleOrder;
+
+/**
+ * The order of battle compiled once: its reinforcement schedule and the board with
+ * every opening unit placed. Games copy the opening board rather than placing each
+ * unit again, and share the rest.
+ */
+final class Scenario {
+
+    private static final Scenario standard = makeStandardScenario();
+
+    private final Reinforcements reinforcements;
+    private final Board openingBoard = new Board();
+
+    private Scenario(Reinforcements reinforcements) {
+        this.reinforcements = reinforcements;
+        for (ArmyID armyID : ArmyID.values()) {
+            for (UnitInitializer unitInitializer : reinforcements.getArrivals(armyID, 0))
+                openingBoard.placeUnit(unitInitializer);
+        }
+        // settle the engagement tracking once so copies start clean
+        openingBoard.getUnitsInBattlePositions();
+    }
+
+    private static Scenario makeStandardScenario() {
+        List<UnitInitializer> battleOrder = getBattleOrder().collect(Collectors.toList());
+        // the order of battle takes the first unit ids, once per process
+        battleOrder.forEach(unitInitializer -> UnitIds.register(unitInitializer.getUnit()));
+        return new Scenario(makeReinforcements(battleOrder.stream()));
+    }
+
+    /**
+     * @return the scenario of the order of battle in BattleOrder
+     */
+    static Scenario getStandardScenario() {
+        return standard;
+    }
+
+    Reinforcements getReinforcements() {
+        return reinforcements;
+    }
+
+    /**
+     * Puts the board in the opening position.
+     */
+    void setUp(Board board) {
+        board.copyFrom(openingBoard);
+    }
+}
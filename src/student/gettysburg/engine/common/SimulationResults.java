@@ -0,0 +1,80 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.ArmyID;
+import gettysburg.common.GbgGameStatus;
+
+/**
+ * Outcome and casualty totals over a number of simulated games.
+ */
+public class SimulationResults {
+
+    private int games;
+    private final int[] outcomes = new int[GbgGameStatus.values().length];
+    private final long[] casualties = new long[ArmyID.values().length];
+    private final long[] casualtySquares = new long[ArmyID.values().length];
+
+    void record(GbgGameStatus status, int unionCasualties, int confederateCasualties) {
+        games++;
+        outcomes[status.ordinal()]++;
+        record(ArmyID.UNION, unionCasualties);
+        record(ArmyID.CONFEDERATE, confederateCasualties);
+    }
+
+    private void record(ArmyID armyID, int count) {
+        casualties[armyID.ordinal()] += count;
+        casualtySquares[armyID.ordinal()] += (long) count * count;
+    }
+
+    /**
+     * Adds the totals of other results, e.g. those of another worker.
+     */
+    public void merge(SimulationResults other) {
+        games += other.games;
+        for (int i = 0; i < outcomes.length; i++)
+            outcomes[i] += other.outcomes[i];
+        for (int i = 0; i < casualties.length; i++) {
+            casualties[i] += other.casualties[i];
+            casualtySquares[i] += other.casualtySquares[i];
+        }
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * @return the number of games that ended with the given status
+     */
+    public int getOutcomes(GbgGameStatus status) {
+        return outcomes[status.ordinal()];
+    }
+
+    /**
+     * @return the total number of units the army lost, in battle, retreats or stacks
+     */
+    public long getCasualties(ArmyID armyID) {
+        return casualties[armyID.ordinal()];
+    }
+
+    public double getMeanCasualties(ArmyID armyID) {
+        return games == 0 ? 0 : (double) casualties[armyID.ordinal()] / games;
+    }
+
+    public double getCasualtyVariance(ArmyID armyID) {
+        if (games == 0)
+            return 0;
+        double mean = getMeanCasualties(armyID);
+        return (double) casualtySquares[armyID.ordinal()] / games - mean * mean;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationResults{" +
+                "games=" + games +
+                ", unionWins=" + getOutcomes(GbgGameStatus.UNION_WINS) +
+                ", confederateWins=" + getOutcomes(GbgGameStatus.CONFEDERATE_WINS) +
+                ", unionCasualties=" + getMeanCasualties(ArmyID.UNION) +
+                ", confederateCasualties=" + getMeanCasualties(ArmyID.CONFEDERATE) +
+                '}';
+    }
+}
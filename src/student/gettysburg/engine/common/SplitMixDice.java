@@ -0,0 +1,67 @@
+package student.gettysburg.engine.common;
+
+/**
+ * A seedable dice source on the SplitMix64 generator. Rolls are generated in
+ * batches, 24 unbiased faces from each accepted 64 bit output, so the same seed
+ * always replays the same rolls. Not thread safe, split one off per thread.
+ */
+public class SplitMixDice implements DiceSource {
+
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int ROLLS_PER_LONG = 24;
+    private static final long SIX_TO_24 = 4738381338321616896L;
+    // largest multiple of 6^24 that fits in 64 unsigned bits, outputs at or above it are rejected
+    private static final long LIMIT = 3 * SIX_TO_24;
+
+    private long state;
+    private final byte[] rolls = new byte[2 * ROLLS_PER_LONG];
+    private int next = rolls.length;
+
+    private SplitMixDice(long seed) {
+        state = seed;
+    }
+
+    public static SplitMixDice makeSplitMixDice(long seed) {
+        return new SplitMixDice(seed);
+    }
+
+    /**
+     * @return an independent dice source seeded from this one
+     */
+    public SplitMixDice split() {
+        return new SplitMixDice(nextLong());
+    }
+
+    @Override
+    public int roll() {
+        if (next == rolls.length)
+            refill();
+        return rolls[next++];
+    }
+
+    long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * The SplitMix64 finalizer, which scrambles nearby inputs into unrelated outputs.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void refill() {
+        for (int i = 0; i < rolls.length; ) {
+            long bits = nextLong();
+            if (Long.compareUnsigned(bits, LIMIT) >= 0)
+                continue;
+            // base 6 digits of a uniform value below 6^24
+            long digits = Long.remainderUnsigned(bits, SIX_TO_24);
+            for (int j = 0; j < ROLLS_PER_LONG; j++, digits /= 6)
+                rolls[i++] = (byte) (digits % 6 + 1);
+        }
+        next = 0;
+    }
+}
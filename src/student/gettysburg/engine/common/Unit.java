@@ -15,6 +15,7 @@ import gettysburg.common.ArmyID;
 import gettysburg.common.GbgUnit;
 import gettysburg.common.UnitSize;
 import gettysburg.common.UnitType;
+import gettysburg.common.exceptions.GbgInvalidActionException;
 
 import static gettysburg.common.ArmyID.CONFEDERATE;
 import static gettysburg.common.ArmyID.UNION;
@@ -37,6 +38,10 @@ public class Unit implements GbgUnit {
 	private final int movementFactor;
 	private final UnitSize unitSize;
 	private final UnitType unitType;
+	// dense id from UnitIds, looked up on first use
+	private int id = -1;
+	// set on the copies boards hold, which boards then share so they must not change
+	private boolean frozen;
 
 	/**
 	 * Default constructor needed for JSON processing. When creating
@@ -96,6 +101,43 @@ public class Unit implements GbgUnit {
 		return new Unit(armyID, leader);
 	}
 
+	/**
+	 * @return a copy of this unit facing the other way, with the same id
+	 */
+	Unit withFacing(Direction facing) {
+		Unit unit = new Unit(armyID, combatFactor, facing, leader, movementFactor, unitSize, unitType);
+		unit.id = id;
+		unit.frozen = true;
+		return unit;
+	}
+
+	/**
+	 * @return this unit if it is already immutable, otherwise an immutable copy of it
+	 * with the same id, for a board taking it
+	 */
+	Unit frozen() {
+		return frozen ? this : withFacing(facing);
+	}
+
+	/**
+	 * @return the unit's dense id, the same for every unit with this army and leader,
+	 * or -1 if no such unit was registered
+	 */
+	int getId() {
+		if (id < 0)
+			id = UnitIds.find(armyID, leader);
+		return id;
+	}
+
+	/**
+	 * @return the unit's dense id, registering the unit if it has none yet
+	 */
+	int register() {
+		if (id < 0)
+			id = UnitIds.register(armyID, leader);
+		return id;
+	}
+
 	/*
 	 * @see gettysburg.common.GbgUnit#getArmy()
 	 */
@@ -127,11 +169,16 @@ public class Unit implements GbgUnit {
 		return facing;
 	}
 
-	/*
+	/**
+	 * Units held by a board are immutable values shared with copies of the board, so
+	 * turning one here is rejected. Turn it through Game.setUnitFacing instead.
+	 * @throws GbgInvalidActionException if the unit is held by a board
 	 * @see gettysburg.common.GbgUnit#setFacing(gettysburg.common.Direction)
 	 */
 	@Override
 	public void setFacing(gettysburg.common.Direction facing) {
+		if (frozen)
+			throw new GbgInvalidActionException("Turn units on a board through Game.setUnitFacing");
 		this.facing = Direction.fromOriginal(facing);
 	}
 
@@ -0,0 +1,69 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.ArmyID;
+import gettysburg.common.GbgUnit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dense ids for units, by army and leader, so game state can be held in arrays indexed
+ * by unit. Scenario registers the order of battle first, taking ids from 0; other units
+ * are registered when first placed on a board. Looking a unit up never registers it.
+ * Ids never change and are shared by every game in the process.
+ */
+final class UnitIds {
+
+    // stands in for a missing leader, which the maps cannot hold
+    private static final Object NO_LEADER = new Object();
+    private static final Map<ArmyID, Map<Object, Integer>> ids = new EnumMap<>(ArmyID.class);
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    static {
+        for (ArmyID armyID : ArmyID.values())
+            ids.put(armyID, new ConcurrentHashMap<>());
+    }
+
+    private UnitIds() {
+    }
+
+    /**
+     * @return the unit's id, or -1 if it was never registered
+     */
+    static int find(GbgUnit unit) {
+        if (unit instanceof Unit)
+            return ((Unit) unit).getId();
+        return find(unit.getArmy(), unit.getLeader());
+    }
+
+    static int find(ArmyID armyID, String leader) {
+        if (armyID == null)
+            return -1;
+        Integer id = ids.get(armyID).get(leader != null ? leader : NO_LEADER);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @return the unit's id, registering it if it has none yet
+     */
+    static int register(GbgUnit unit) {
+        if (unit instanceof Unit)
+            return ((Unit) unit).register();
+        return register(unit.getArmy(), unit.getLeader());
+    }
+
+    static int register(ArmyID armyID, String leader) {
+        if (armyID == null)
+            throw new IllegalArgumentException("Units need an army to be registered");
+        return ids.get(armyID).computeIfAbsent(leader != null ? leader : NO_LEADER, key -> nextId.getAndIncrement());
+    }
+
+    /**
+     * @return the number of ids handed out so far, a good initial size for arrays by id
+     */
+    static int count() {
+        return nextId.get();
+    }
+}
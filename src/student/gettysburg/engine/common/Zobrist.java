@@ -0,0 +1,61 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.GbgGameStatus;
+import gettysburg.common.GbgGameStep;
+
+/**
+ * Zobrist keys for the parts of a game's state. A state's hash is the exclusive or of
+ * the keys of its parts, so it is updated in constant time as parts come and go.
+ * Keys are computed by scrambling the part rather than drawn from a table, so they need
+ * no storage, cover any unit id, and are the same in every game and every run.
+ */
+final class Zobrist {
+
+    // the kinds of state part, keeping the keys of different kinds apart
+    static final int UNIT_CELL = 0;
+    static final int UNIT_FACING = 1;
+    static final int MOVED = 2;
+    static final int ROTATED = 3;
+    static final int BATTLED = 4;
+    private static final int STEP = 6;
+    private static final int TURN = 7;
+    private static final int STATUS = 8;
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key of a unit at the cell, by Cell.index()
+     */
+    static long unitAt(int id, int index) {
+        return key(UNIT_CELL, id, index);
+    }
+
+    static long unitFacing(int id, Direction facing) {
+        return key(UNIT_FACING, id, facing.ordinal());
+    }
+
+    /**
+     * @return the key of a per-turn flag of the kind set for a unit
+     */
+    static long flag(int kind, int id) {
+        return key(kind, id, 0);
+    }
+
+    static long step(GbgGameStep step) {
+        return key(STEP, 0, step.ordinal());
+    }
+
+    static long turn(int turn) {
+        return key(TURN, 0, turn);
+    }
+
+    static long status(GbgGameStatus status) {
+        return key(STATUS, 0, status.ordinal());
+    }
+
+    private static long key(int kind, int id, int value) {
+        long part = (long) kind << 56 | (long) id << 24 | value;
+        return SplitMixDice.mix((part + 1) * SplitMixDice.GOLDEN_GAMMA);
+    }
+}
@@ -5,6 +5,7 @@ import gettysburg.common.exceptions.GbgInvalidActionException;
 import gettysburg.common.exceptions.GbgInvalidMoveException;
 import org.junit.Before;
 import org.junit.Test;
+import student.gettysburg.engine.common.TestGame;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -19,6 +20,7 @@ import static gettysburg.common.UnitSize.BRIGADE;
 import static gettysburg.common.UnitSize.DIVISION;
 import static gettysburg.common.UnitType.CAVALRY;
 import static gettysburg.common.UnitType.INFANTRY;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.*;
 import static student.gettysburg.engine.GettysburgFactory.makeCoordinate;
 import static student.gettysburg.engine.GettysburgFactory.makeTestGame;
@@ -262,6 +264,8 @@ public class GettysburgFactoryTest {
         testGame.putUnitAt(schurz, 6, 7, NORTH);
         game.moveUnit(schurz, makeCoordinate(6, 7), makeCoordinate(6, 6));
         game.endStep();	// UBATTLE
+        // schurz stays in hampton's ZOC, a retreat or loss would leave hampton unengaged
+        ((TestGame) testGame).setBattleResults(singletonList(BattleResult.DELIM));
         TestBattleDescriptor bd = new TestBattleDescriptor();
         bd.addAttacker(schurz);
         bd.addDefender(heth);
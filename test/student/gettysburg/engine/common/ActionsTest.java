@@ -0,0 +1,84 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleDescriptor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.Cell.makeCell;
+import static student.gettysburg.engine.common.Unit.makeUnit;
+
+public class ActionsTest {
+
+    private Board board;
+    private Actions actions;
+    private Unit unitA;
+    private Unit unitB;
+    private Unit unitC;
+
+    @Before
+    public void setup() {
+        board = new Board();
+        actions = new Actions();
+        unitA = makeUnit(UNION, "A");
+        unitB = makeUnit(CONFEDERATE, "B");
+        unitC = makeUnit(CONFEDERATE, "C");
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(6, 5));
+        board.moveUnit(unitC, makeCell(6, 6));
+        actions.clear(board);
+    }
+
+    @Test
+    public void addMove() {
+        actions.addMove(unitA.getId(), makeCell(4, 4).index());
+
+        assertEquals(1, actions.size());
+        assertEquals(Actions.MOVE, actions.getKind(0));
+        assertEquals(unitA, actions.getUnit(0));
+        assertEquals(makeCell(4, 4), actions.getTo(0));
+    }
+
+    @Test
+    public void addFacingsAddsEveryDirection() {
+        actions.addFacings(unitA.getId());
+
+        assertEquals(8, actions.size());
+        assertEquals(Actions.FACE, actions.getKind(0));
+        assertEquals(gettysburg.common.Direction.NORTH, actions.getFacing(0));
+    }
+
+    @Test
+    public void addBattle() {
+        actions.addMove(unitA.getId(), 0);
+        actions.addBattle(singletonList(unitA), asList(unitB, unitC));
+        actions.addBattle(singletonList(unitA), singletonList(unitC));
+        BattleDescriptor battle = actions.getBattle(1);
+
+        assertEquals(Actions.BATTLE, actions.getKind(1));
+        assertEquals(singletonList(unitA), battle.getAttackers());
+        assertEquals(asList(unitB, unitC), battle.getDefenders());
+        assertEquals(singletonList(unitC), actions.getBattle(2).getDefenders());
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        for (int index = 0; index < Cell.COUNT; index++)
+            actions.addMove(unitA.getId(), index);
+
+        assertEquals(Cell.COUNT, actions.size());
+        assertEquals(Cell.fromIndex(Cell.COUNT - 1), actions.getTo(Cell.COUNT - 1));
+    }
+
+    @Test
+    public void clearEmpties() {
+        actions.addFacings(unitA.getId());
+        actions.clear(board);
+
+        assertEquals(0, actions.size());
+    }
+}
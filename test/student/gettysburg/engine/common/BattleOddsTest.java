@@ -0,0 +1,94 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleDescriptor;
+import gettysburg.common.BattleResult;
+import gettysburg.common.GbgUnit;
+import org.junit.Test;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static gettysburg.common.BattleResult.*;
+import static gettysburg.common.Direction.EAST;
+import static gettysburg.common.Direction.WEST;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.Battle.makeBattle;
+import static student.gettysburg.engine.common.BattleOdds.makeBattleOdds;
+import static student.gettysburg.engine.common.Resolution.makeResolution;
+import static student.gettysburg.engine.common.Unit.makeUnit;
+
+public class BattleOddsTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static BattleDescriptor makeEvenBattle() {
+        return makeBattle(
+                singletonList(makeUnit(UNION, 1, EAST, "A", 0, null, null)),
+                singletonList(makeUnit(CONFEDERATE, 1, WEST, "B", 0, null, null)));
+    }
+
+    private static BattleDescriptor makeExchangeBattle() {
+        return makeBattle(
+                asList(makeUnit(UNION, 2, EAST, "A", 0, null, null),
+                        makeUnit(UNION, 2, EAST, "B", 0, null, null),
+                        makeUnit(UNION, 3, EAST, "C", 0, null, null)),
+                singletonList(makeUnit(CONFEDERATE, 4, WEST, "D", 0, null, null)));
+    }
+
+    // getProbability
+
+    @Test
+    public void evenBattleProbabilities() {
+        BattleOdds odds = makeBattleOdds(makeEvenBattle());
+
+        assertEquals(1 / 6.0, odds.getProbability(AELIM), DELTA);
+        assertEquals(1 / 6.0, odds.getProbability(ABACK), DELTA);
+        assertEquals(1 / 6.0, odds.getProbability(EXCHANGE), DELTA);
+        assertEquals(2 / 6.0, odds.getProbability(DBACK), DELTA);
+        assertEquals(1 / 6.0, odds.getProbability(DELIM), DELTA);
+    }
+
+    @Test
+    public void probabilitiesSumToOne() {
+        BattleOdds odds = makeBattleOdds(makeExchangeBattle());
+
+        double sum = 0;
+        for (BattleResult result : BattleResult.values())
+            sum += odds.getProbability(result);
+        assertEquals(1, sum, DELTA);
+    }
+
+    // getExpectedCasualties
+
+    @Test
+    public void evenBattleExpectedCasualties() {
+        BattleOdds odds = makeBattleOdds(makeEvenBattle());
+
+        // AELIM or an even EXCHANGE for the attacker, DELIM or the EXCHANGE for the defender
+        assertEquals(2 / 6.0, odds.getExpectedCasualties(UNION), DELTA);
+        assertEquals(2 / 6.0, odds.getExpectedCasualties(CONFEDERATE), DELTA);
+        assertEquals(2 / 6.0, odds.getExpectedCombatFactorLoss(UNION), DELTA);
+    }
+
+    @Test
+    public void expectedCasualtiesMatchEveryDieFace() {
+        BattleDescriptor battle = makeExchangeBattle();
+        BattleOdds odds = makeBattleOdds(battle);
+
+        double union = 0;
+        double confederate = 0;
+        double unionCombatFactor = 0;
+        for (int face = 1; face <= 6; face++) {
+            int dieFace = face;
+            Resolution resolution = makeResolution(battle, () -> dieFace);
+            union += resolution.getEliminatedUnionUnits().size() / 6.0;
+            confederate += resolution.getEliminatedConfederateUnits().size() / 6.0;
+            for (GbgUnit unit : resolution.getEliminatedUnionUnits())
+                unionCombatFactor += unit.getCombatFactor() / 6.0;
+        }
+        assertEquals(union, odds.getExpectedCasualties(UNION), DELTA);
+        assertEquals(confederate, odds.getExpectedCasualties(CONFEDERATE), DELTA);
+        assertEquals(unionCombatFactor, odds.getExpectedCombatFactorLoss(UNION), DELTA);
+    }
+}
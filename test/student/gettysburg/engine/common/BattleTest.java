@@ -0,0 +1,67 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleDescriptor;
+import gettysburg.common.GbgUnit;
+import org.junit.Test;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static gettysburg.common.Direction.EAST;
+import static gettysburg.common.Direction.WEST;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.Battle.makeBattle;
+import static student.gettysburg.engine.common.Unit.makeUnit;
+
+public class BattleTest {
+
+    private static final GbgUnit A = makeUnit(UNION, 2, EAST, "A", 0, null, null);
+    private static final GbgUnit B = makeUnit(UNION, 3, EAST, "B", 0, null, null);
+    private static final GbgUnit C = makeUnit(CONFEDERATE, 4, WEST, "C", 0, null, null);
+
+    @Test
+    public void combatFactorsAreSummed() {
+        Battle battle = makeBattle(asList(A, B), singletonList(C));
+
+        assertEquals(5, battle.getAttackingCombatFactor());
+        assertEquals(4, battle.getDefendingCombatFactor());
+        assertEquals(1.25, battle.getBattleRatio(), 0);
+        assertEquals(UNION, battle.getAttackingArmy());
+    }
+
+    @Test
+    public void battleRatioWithoutDefenders() {
+        assertEquals(6.0, makeBattle(singletonList(A), null).getBattleRatio(), 0);
+        assertEquals(1.0, makeBattle(null, null).getBattleRatio(), 0);
+    }
+
+    @Test
+    public void makeBattleFromBattleIsFreshCopy() {
+        Battle battle = makeBattle(singletonList(A), singletonList(C));
+        Battle copy = makeBattle((BattleDescriptor) battle);
+
+        assertNotSame(battle, copy);
+        assertEquals(battle, copy);
+        assertEquals(2, copy.getAttackingCombatFactor());
+        assertEquals(4, copy.getDefendingCombatFactor());
+    }
+
+    @Test
+    public void missingUnitsAreEmpty() {
+        Battle battle = makeBattle(emptyList(), null);
+
+        assertEquals(emptyList(), battle.getDefenders());
+        assertEquals(0, battle.getDefendingCombatFactor());
+    }
+
+    @Test
+    public void combatFactorsAreComparedExactly() {
+        assertTrue(makeBattle(asList(A, B), singletonList(C)).compareCombatFactors() > 0);
+        assertTrue(makeBattle(singletonList(C), asList(A, B)).compareCombatFactors() < 0);
+        assertEquals(0, makeBattle(singletonList(C), asList(A, A)).compareCombatFactors());
+        assertTrue(makeBattle(singletonList(A), null).compareCombatFactors() > 0);
+        assertEquals(0, makeBattle(null, null).compareCombatFactors());
+    }
+}
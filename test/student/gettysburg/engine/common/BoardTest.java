@@ -1,11 +1,17 @@
 package student.gettysburg.engine.common;
 
+import gettysburg.common.GbgUnit;
+import gettysburg.common.exceptions.GbgInvalidActionException;
 import org.junit.Before;
 import org.junit.Test;
 import student.gettysburg.engine.utility.configure.UnitInitializer;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -13,6 +19,7 @@ import static gettysburg.common.ArmyID.CONFEDERATE;
 import static gettysburg.common.ArmyID.UNION;
 import static gettysburg.common.Direction.*;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.*;
 import static student.gettysburg.engine.common.Cell.makeCell;
 import static student.gettysburg.engine.common.Unit.makeUnit;
@@ -60,6 +67,40 @@ public class BoardTest {
         assertEquals(cellB, board.getUnitPosition(unit));
     }
 
+    @Test
+    public void moveUnitVacatesPreviousCell() {
+        Cell cellA = makeCell(5, 5);
+        Cell cellB = makeCell(6, 6);
+        board.moveUnit(makeUnit(UNION, "unit"), cellA);
+        GbgUnit unit = board.getUnitsAt(cellA).iterator().next();
+        board.moveUnit(makeUnit(UNION, "unit"), cellB);
+
+        assertTrue(board.getUnitsAt(cellA).isEmpty());
+        assertSame(unit, board.getUnitsAt(cellB).iterator().next());
+    }
+
+    @Test
+    public void moveUnitLeavesCallersUnitMutable() {
+        Unit unit = makeUnit(UNION, "A");
+        board.moveUnit(unit, makeCell(5, 5));
+        unit.setFacing(EAST);
+
+        assertEquals(NONE, board.getUnitFacing(unit));
+    }
+
+    // removeUnit
+
+    @Test
+    public void removeUnit() {
+        Cell cell = makeCell(5, 5);
+        Unit unit = makeUnit(UNION, "unit");
+        board.moveUnit(unit, cell);
+        board.removeUnit(unit);
+
+        assertNull(board.getUnitPosition(unit));
+        assertFalse(board.cellIsOccupied.test(cell));
+    }
+
     // cellIsOccupied
 
     @Test
@@ -119,6 +160,48 @@ public class BoardTest {
         assertTrue(board.getUnitsAt(cell).isEmpty());
     }
 
+    // copyFrom
+
+    @Test(expected = GbgInvalidActionException.class)
+    public void copiedUnitsCannotBeTurnedInPlace() {
+        Board other = new Board();
+        other.moveUnit(makeUnit(UNION, "A"), makeCell(5, 5));
+        board.copyFrom(other);
+
+        ((Unit) board.getUnit(makeUnit(UNION, "A"))).setFacing(EAST);
+    }
+
+    @Test
+    public void copyFromCopiesUnitsAndControl() {
+        Board other = new Board();
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(EAST);
+        other.moveUnit(unitA, makeCell(5, 5));
+        other.moveUnit(makeUnit(CONFEDERATE, "B"), makeCell(6, 5));
+        board.moveUnit(makeUnit(UNION, "C"), makeCell(10, 10));
+        board.copyFrom(other);
+
+        assertNull(board.getUnitPosition(makeUnit(UNION, "C")));
+        assertEquals(makeCell(5, 5), board.getUnitPosition(unitA));
+        assertEquals(2, board.getUnitsInBattlePositions().count());
+        // control of unit A's zone is copied and unit C's is gone
+        assertFalse(board.canMoveFrom(makeUnit(CONFEDERATE, "D"), makeCell(6, 6).index()));
+        assertTrue(board.canMoveFrom(makeUnit(CONFEDERATE, "D"), makeCell(10, 10).index()));
+    }
+
+    @Test
+    public void copyFromHasOwnUnits() {
+        Board other = new Board();
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(EAST);
+        other.moveUnit(unitA, makeCell(5, 5));
+        board.copyFrom(other);
+        board.setUnitFacing(unitA, WEST);
+
+        assertEquals(EAST, other.getUnit(unitA).getFacing());
+        assertNotSame(unitA, board.getUnit(unitA));
+    }
+
     // removeStackedUnits
 
     @Test
@@ -132,6 +215,82 @@ public class BoardTest {
         assertTrue(board.getUnitsAt(cell).isEmpty());
     }
 
+    // getHash
+
+    @Test
+    public void getHashIgnoresHowUnitsGotThere() {
+        Board other = new Board();
+        board.moveUnit(makeUnit(UNION, "A"), makeCell(5, 5));
+        board.moveUnit(makeUnit(CONFEDERATE, "B"), makeCell(7, 5));
+        other.moveUnit(makeUnit(CONFEDERATE, "B"), makeCell(6, 6));
+        other.moveUnit(makeUnit(UNION, "A"), makeCell(5, 5));
+        other.moveUnit(makeUnit(CONFEDERATE, "B"), makeCell(7, 5));
+
+        assertEquals(other.getHash(), board.getHash());
+    }
+
+    @Test
+    public void getHashChangesWithFacing() {
+        Unit unit = makeUnit(UNION, 0, WEST, "A", 0, null, null);
+        board.moveUnit(unit, makeCell(5, 5));
+        long hash = board.getHash();
+        board.setUnitFacing(unit, EAST);
+
+        assertNotEquals(hash, board.getHash());
+        board.setUnitFacing(unit, WEST);
+        assertEquals(hash, board.getHash());
+    }
+
+    @Test
+    public void getHashOfEmptyBoard() {
+        board.moveUnit(makeUnit(UNION, "A"), makeCell(5, 5));
+        board.removeUnit(makeUnit(UNION, "A"));
+
+        assertEquals(new Board().getHash(), board.getHash());
+    }
+
+    // setUnitFacing
+
+    @Test
+    public void setUnitFacingLeavesUnitUnchanged() {
+        Unit unit = makeUnit(UNION, 0, WEST, "A", 0, null, null);
+        board.moveUnit(unit, makeCell(5, 5));
+        board.setUnitFacing(unit, EAST);
+
+        assertEquals(WEST, unit.getFacing());
+        assertEquals(EAST, board.getUnit(unit).getFacing());
+        assertEquals(EAST, board.getUnitsAt(makeCell(5, 5)).iterator().next().getFacing());
+    }
+
+    @Test
+    public void turningUnitInPlaceLeavesControlInStep() {
+        Unit unit = makeUnit(UNION, 0, EAST, "A", 0, null, null);
+        board.moveUnit(unit, makeCell(5, 5));
+        try {
+            unit.setFacing(WEST);
+        } catch (GbgInvalidActionException expected) {
+            // only the board turns its units
+        }
+        board.removeUnit(unit);
+
+        Unit enemy = makeUnit(CONFEDERATE, "B");
+        for (int index = 0; index < Cell.COUNT; index++)
+            assertTrue(board.canMoveFrom(enemy, index));
+    }
+
+    // getUnits
+
+    @Test
+    public void getUnitsInIdOrder() {
+        Unit unitA = makeUnit(UNION, "A");
+        Unit unitB = makeUnit(CONFEDERATE, "B");
+        board.moveUnit(unitB, makeCell(5, 5));
+        board.moveUnit(unitA, makeCell(6, 5));
+
+        List<Unit> expected = unitA.getId() < unitB.getId() ? asList(unitA, unitB) : asList(unitB, unitA);
+        assertEquals(expected, board.getUnits());
+    }
+
     // getUnitsInBattlePositions
 
     @Test
@@ -229,6 +388,159 @@ public class BoardTest {
         assertEquals(new HashSet<>(units), new HashSet<>(board.getUnitsInBattlePositions().collect(Collectors.toList())));
     }
 
+    @Test
+    public void getUnitsInBattleAfterTurningAway() {
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(EAST);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(makeUnit(CONFEDERATE, "B"), makeCell(6, 5));
+        assertEquals(2, board.getUnitsInBattlePositions().count());
+        board.setUnitFacing(unitA, WEST);
+
+        assertEquals(0, board.getUnitsInBattlePositions().count());
+    }
+
+    @Test
+    public void getUnitsInBattleAfterDefenderLeaves() {
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(EAST);
+        Unit unitB = makeUnit(CONFEDERATE, "B");
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(6, 5));
+        assertEquals(2, board.getUnitsInBattlePositions().count());
+        board.moveUnit(unitB, makeCell(8, 5));
+
+        assertEquals(0, board.getUnitsInBattlePositions().count());
+        board.removeUnit(unitA);
+        board.moveUnit(unitB, makeCell(6, 5));
+        assertEquals(0, board.getUnitsInBattlePositions().count());
+    }
+
+    @Test
+    public void getUnitsInBattleMatchesFullScanAfterRandomChanges() {
+        Random random = new Random(1);
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < 40; i++)
+            units.add(makeUnit(i % 2 == 0 ? UNION : CONFEDERATE, "U" + i));
+        gettysburg.common.Direction[] facings = gettysburg.common.Direction.values();
+        for (int change = 0; change < 2000; change++) {
+            Unit unit = units.get(random.nextInt(units.size()));
+            int action = random.nextInt(4);
+            if (action == 0)
+                board.removeUnit(unit);
+            else if (action == 1 && board.getUnitPosition(unit) != null)
+                board.setUnitFacing(unit, facings[random.nextInt(facings.length)]);
+            else {
+                // armies never share a cell
+                Cell cell = makeCell(1 + random.nextInt(8), 1 + random.nextInt(8));
+                if (board.getUnitsAt(cell).isEmpty())
+                    board.moveUnit(unit, cell);
+            }
+            if (change % 10 == 0)
+                assertEquals(scanUnitsInBattle(), new HashSet<>(board.getUnitsInBattlePositions().collect(Collectors.toList())));
+        }
+    }
+
+    private Set<Unit> scanUnitsInBattle() {
+        // every unit with an enemy in its zone of control, and those enemies
+        Set<Unit> units = new HashSet<>();
+        for (Unit unit : board.getUnits()) {
+            Direction facing = unit.getDirection() != null ? unit.getDirection() : Direction.NONE;
+            for (int zoneIndex : Geometry.zoneOfControl(board.getUnitPosition(unit).index(), facing)) {
+                for (GbgUnit other : board.getUnitsAt(Cell.fromIndex(zoneIndex))) {
+                    if (other.getArmy() != unit.getArmy()) {
+                        units.add(unit);
+                        units.add((Unit) other);
+                    }
+                }
+            }
+        }
+        return units;
+    }
+
+    // getEngagements
+
+    @Test
+    public void getEngagementsSplitsDistantBattles() {
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(EAST);
+        Unit unitB = makeUnit(CONFEDERATE, "B");
+        Unit unitC = makeUnit(UNION, "C");
+        unitC.setFacing(EAST);
+        Unit unitD = makeUnit(CONFEDERATE, "D");
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(6, 5));
+        board.moveUnit(unitC, makeCell(15, 15));
+        board.moveUnit(unitD, makeCell(16, 15));
+
+        assertEquals(asList(asList(unitA, unitB), asList(unitC, unitD)), board.getEngagements());
+    }
+
+    @Test
+    public void getEngagementsJoinsChains() {
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(EAST);
+        Unit unitB = makeUnit(CONFEDERATE, "B");
+        unitB.setFacing(EAST);
+        Unit unitC = makeUnit(UNION, "C");
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(6, 5));
+        board.moveUnit(unitC, makeCell(7, 5));
+
+        assertEquals(singletonList(asList(unitA, unitB, unitC)), board.getEngagements());
+    }
+
+    @Test
+    public void getEngagementsWithMixedStack() {
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(EAST);
+        Unit unitB = makeUnit(CONFEDERATE, "B");
+        unitB.setFacing(EAST);
+        Unit unitC = makeUnit(UNION, "C");
+        unitC.setFacing(EAST);
+        board.moveUnit(unitA, makeCell(10, 10));
+        board.moveUnit(unitB, makeCell(10, 10));
+        board.moveUnit(unitC, makeCell(9, 10));
+
+        assertEquals(singletonList(asList(unitA, unitB)), board.getEngagements());
+    }
+
+    @Test
+    public void getEngagementsCoverBattlePositionsAfterRandomChanges() {
+        Random random = new Random(1);
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < 40; i++)
+            units.add(makeUnit(i % 2 == 0 ? UNION : CONFEDERATE, "U" + i));
+        gettysburg.common.Direction[] facings = gettysburg.common.Direction.values();
+        for (int change = 0; change < 2000; change++) {
+            Unit unit = units.get(random.nextInt(units.size()));
+            int action = random.nextInt(4);
+            if (action == 0)
+                board.removeUnit(unit);
+            else if (action == 1 && board.getUnitPosition(unit) != null)
+                board.setUnitFacing(unit, facings[random.nextInt(facings.length)]);
+            else
+                // stacks, mixed armies included, as reinforcements and test setups can make
+                board.moveUnit(unit, makeCell(1 + random.nextInt(8), 1 + random.nextInt(8)));
+            if (change % 10 == 0) {
+                List<Unit> engaged = new ArrayList<>();
+                board.getEngagements().forEach(engaged::addAll);
+                assertEquals(engaged.size(), new HashSet<>(engaged).size());
+                assertTrue(engaged.containsAll(board.getUnitsInBattlePositions().collect(Collectors.toList())));
+            }
+        }
+    }
+
+    @Test
+    public void getEngagementsWithoutBattles() {
+        Unit unitA = makeUnit(UNION, "A");
+        unitA.setFacing(WEST);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(makeUnit(CONFEDERATE, "B"), makeCell(6, 5));
+
+        assertTrue(board.getEngagements().isEmpty());
+    }
+
     // getAllowedNeighborsAt
 
     @Test
@@ -355,6 +667,92 @@ public class BoardTest {
         assertTrue(board.hasPath(unitA, to, movementFactor));
     }
 
+    @Test
+    public void hasIndirectPathLongerThanMovementFactor() {
+        Integer movementFactor = 5;
+        Unit unitA = makeUnit(UNION, 0, EAST,"A", movementFactor, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(makeUnit(CONFEDERATE, 0, WEST, "B", 0, null, null), makeCell(7, 4));
+        board.moveUnit(makeUnit(CONFEDERATE, 0, WEST, "C", 0, null, null), makeCell(7, 7));
+
+        assertFalse(board.hasPath(unitA, makeCell(8, 5), movementFactor));
+    }
+
+    // getReachableCells
+
+    @Test
+    public void getReachableCellsOpenBoard() {
+        Unit unitA = makeUnit(UNION, 0, EAST, "A", 2, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+
+        assertEquals(24, board.getReachableCells(unitA).cardinality());
+    }
+
+    @Test
+    public void getReachableCellsPassesThroughFriendlyUnits() {
+        Unit unitA = makeUnit(UNION, 0, EAST, "A", 1, null, null);
+        board.moveUnit(unitA, makeCell(1, 1));
+        board.moveUnit(makeUnit(UNION, "B"), makeCell(2, 1));
+        board.moveUnit(makeUnit(UNION, "C"), makeCell(1, 2));
+
+        Set<Cell> cells = board.getReachableCells(unitA).stream()
+                .mapToObj(Cell::fromIndex)
+                .collect(Collectors.toSet());
+        assertEquals(new HashSet<>(singletonList(makeCell(2, 2))), cells);
+    }
+
+    @Test
+    public void getReachableCellsMatchesHasPath() {
+        Integer movementFactor = 6;
+        Unit unitA = makeUnit(UNION, 0, EAST,"A", movementFactor, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(makeUnit(CONFEDERATE, 0, WEST, "B", 0, null, null), makeCell(7, 4));
+        board.moveUnit(makeUnit(CONFEDERATE, 0, WEST, "C", 0, null, null), makeCell(7, 7));
+        BitSet reachable = board.getReachableCells(unitA);
+
+        for (int index = 0; index < Cell.COUNT; index++) {
+            Cell cell = Cell.fromIndex(index);
+            boolean expected = !board.cellIsOccupied.test(cell) && board.hasPath(unitA, cell, movementFactor);
+            assertEquals(cell.toString(), expected, reachable.get(index));
+        }
+    }
+
+    @Test
+    public void getReachableCellsCachedWhileBoardUnchangedNearby() {
+        Unit unitA = makeUnit(UNION, 0, EAST, "A", 2, null, null);
+        Unit unitB = makeUnit(CONFEDERATE, 0, WEST, "B", 2, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(15, 15));
+        BitSet reachable = board.getReachableCells(unitA);
+        board.moveUnit(unitB, makeCell(16, 16));
+
+        assertSame(reachable, board.getReachableCells(unitA));
+    }
+
+    @Test
+    public void getReachableCellsRecomputedAfterNearbyChange() {
+        Unit unitA = makeUnit(UNION, 0, EAST, "A", 2, null, null);
+        Unit unitB = makeUnit(CONFEDERATE, 0, WEST, "B", 2, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(15, 15));
+        board.getReachableCells(unitA);
+        board.moveUnit(unitB, makeCell(7, 5));
+
+        assertFalse(board.getReachableCells(unitA).get(makeCell(7, 4).index()));
+    }
+
+    @Test
+    public void getReachableCellsRecomputedAfterRotation() {
+        Unit unitA = makeUnit(UNION, 0, EAST, "A", 2, null, null);
+        Unit unitB = makeUnit(CONFEDERATE, 0, EAST, "B", 2, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(7, 5));
+        board.getReachableCells(unitA);
+        board.setUnitFacing(unitA, WEST);
+
+        assertTrue(board.getReachableCells(unitA).get(makeCell(7, 3).index()));
+    }
+
     // getRetreatableSquares
 
     @Test
@@ -388,6 +786,28 @@ public class BoardTest {
         assertTrue(board.getRetreatableSquares(unitA).count() == 0);
     }
 
+    @Test
+    public void getRetreatableSquaresAfterEnemyRotates() {
+        Unit unitA = makeUnit(UNION, 1, EAST, "A", 1, null, null);
+        Unit unitB = makeUnit(CONFEDERATE, 1, WEST, "B", 1, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(7, 5));
+        board.setUnitFacing(unitB, EAST);
+
+        assertEquals(8, board.getRetreatableSquares(unitA).count());
+    }
+
+    @Test
+    public void getRetreatableSquaresAfterEnemyRemoved() {
+        Unit unitA = makeUnit(UNION, 1, EAST, "A", 1, null, null);
+        Unit unitB = makeUnit(CONFEDERATE, 1, WEST, "B", 1, null, null);
+        board.moveUnit(unitA, makeCell(5, 5));
+        board.moveUnit(unitB, makeCell(7, 5));
+        board.removeUnit(makeUnit(CONFEDERATE, "B"));
+
+        assertEquals(8, board.getRetreatableSquares(unitA).count());
+    }
+
     @Test
     public void getRetreatableSquaresNoMovementFactor() {
         Unit unitA = makeUnit(UNION, 1, EAST, "A", 0, null, null);
@@ -0,0 +1,72 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleResolution;
+import gettysburg.common.GbgUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static gettysburg.common.BattleResult.ABACK;
+import static gettysburg.common.Direction.*;
+import static gettysburg.common.GbgGameStep.UBATTLE;
+import static gettysburg.common.GbgGameStep.UMOVE;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.Battle.makeBattle;
+import static student.gettysburg.engine.common.Unit.makeUnit;
+
+public class CasualtiesTest {
+
+    private TestGame game;
+    private Casualties casualties;
+
+    @Before
+    public void setup() {
+        game = new TestGame();
+        game.clearBoard();
+        casualties = new Casualties();
+    }
+
+    @Test
+    public void unitWithoutRetreatIsLost() {
+        GbgUnit unitA = makeUnit(UNION, 0, EAST, "A", 1, null, null);
+        GbgUnit unitB = makeUnit(CONFEDERATE, "B");
+        game.setGameStep(UBATTLE);
+        game.putUnitAt(unitA, 5, 5, EAST);
+        game.putUnitAt(unitB, 4, 4, SOUTHEAST);
+        game.putUnitAt(makeUnit(CONFEDERATE, "C"), 6, 4, SOUTHWEST);
+        game.putUnitAt(makeUnit(CONFEDERATE, "D"), 5, 7, NORTH);
+        casualties.see(game.board);
+        game.setBattleResults(singletonList(ABACK));
+        BattleResolution resolution = game.resolveBattle(makeBattle(singletonList(unitA), singletonList(unitB)));
+
+        // pushed back with nowhere to go, so not among the resolution's eliminated units
+        assertTrue(resolution.getEliminatedUnionUnits().isEmpty());
+        assertEquals(1, casualties.count(UNION, game.board));
+        assertEquals(0, casualties.count(CONFEDERATE, game.board));
+    }
+
+    @Test
+    public void stackedUnitsAreLost() {
+        game.setGameStep(UMOVE);
+        game.putUnitAt(makeUnit(UNION, "A"), 5, 5, EAST);
+        game.putUnitAt(makeUnit(UNION, "B"), 5, 5, EAST);
+        game.putUnitAt(makeUnit(CONFEDERATE, "C"), 15, 15, WEST);
+        casualties.see(game.board);
+        game.endStep();
+
+        assertEquals(2, casualties.count(UNION, game.board));
+        assertEquals(0, casualties.count(CONFEDERATE, game.board));
+    }
+
+    @Test
+    public void clearForgetsSeenUnits() {
+        game.putUnitAt(makeUnit(UNION, "A"), 5, 5, EAST);
+        casualties.see(game.board);
+        casualties.clear();
+        game.clearBoard();
+
+        assertEquals(0, casualties.count(UNION, game.board));
+    }
+}
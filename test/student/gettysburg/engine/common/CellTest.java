@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import static gettysburg.common.Direction.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class CellTest {
 
@@ -144,4 +145,25 @@ public class CellTest {
         Cell cell2 = Cell.makeCell(4, 3);
         assertEquals(3, cell1.distanceTo(cell2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void makeCellReturnsCanonicalInstance() {
+        assertSame(Cell.makeCell(3, 4), Cell.makeCell(3, 4));
+    }
+
+    @Test
+    public void fromIndexReturnsCanonicalInstance() {
+        Cell cell = Cell.makeCell(22, 28);
+        assertSame(cell, Cell.fromIndex(cell.index()));
+    }
+
+    @Test
+    public void getAdjacentReturnsCanonicalInstance() {
+        assertSame(Cell.makeCell(4, 4), Cell.makeCell(3, 3).getAdjacent(Direction.SOUTHEAST));
+    }
+
+    @Test
+    public void getAdjacentOffBoardHasNoIndex() {
+        assertEquals(-1, Cell.makeCell(1, 1).getAdjacent(Direction.WEST).index());
+    }
+}
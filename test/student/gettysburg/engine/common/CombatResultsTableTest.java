@@ -0,0 +1,79 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.BattleResult;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static gettysburg.common.BattleResult.*;
+import static org.junit.Assert.*;
+
+public class CombatResultsTableTest {
+
+    // the original per-face lists, highest ratio first, scanned for the first ratio at or below the battle ratio
+    private static final double[][] RATIOS = {
+            {0.5, 0.333, 0.2, 0.0},
+            {5.0, 2.0, 1.0, 0.333, 0.25, 0.0},
+            {4.0, 0.5, 0.167, 0.0},
+            {6.0, 0.3, 0.2, 0.0},
+            {5.0, 4.0, 1.0, 0.0},
+            {3.0, 0.0},
+    };
+    private static final BattleResult[][] RESULTS = {
+            {DELIM, DBACK, ABACK, AELIM},
+            {DBACK, EXCHANGE, ABACK, EXCHANGE, ABACK, AELIM},
+            {DELIM, DBACK, ABACK, AELIM},
+            {DELIM, DBACK, ABACK, AELIM},
+            {DELIM, DBACK, EXCHANGE, AELIM},
+            {DELIM, AELIM},
+    };
+
+    private static BattleResult scan(int dieFace, double battleRatio) {
+        double[] ratios = RATIOS[dieFace - 1];
+        for (int i = 0; i < ratios.length; i++) {
+            if (battleRatio >= ratios[i])
+                return RESULTS[dieFace - 1][i];
+        }
+        return RESULTS[dieFace - 1][0];
+    }
+
+    private static void assertMatchesScan(double battleRatio) {
+        for (int face = 1; face <= CombatResultsTable.FACES; face++)
+            assertEquals("face " + face + " ratio " + battleRatio,
+                    scan(face, battleRatio), CombatResultsTable.getResult(face, battleRatio));
+    }
+
+    @Test
+    public void matchesScanAtEveryThreshold() {
+        for (double[] ratios : RATIOS) {
+            for (double ratio : ratios) {
+                assertMatchesScan(ratio);
+                assertMatchesScan(Math.nextUp(ratio));
+                assertMatchesScan(Math.nextDown(ratio));
+            }
+        }
+    }
+
+    @Test
+    public void matchesScanAtRandomRatios() {
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++)
+            assertMatchesScan(random.nextDouble() * 8);
+    }
+
+    @Test
+    public void matchesScanAtBattleRatioExtremes() {
+        assertMatchesScan(0.0);
+        assertMatchesScan(1.0 / 3);
+        assertMatchesScan(1.0 / 6);
+        assertMatchesScan(100.0);
+        assertMatchesScan(Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void bucketOfExactThreshold() {
+        assertEquals(0, CombatResultsTable.getBucket(0.0));
+        assertEquals(CombatResultsTable.getBucketCount() - 1, CombatResultsTable.getBucket(6.0));
+        assertEquals(CombatResultsTable.getBucket(1.0), CombatResultsTable.getBucket(1.5));
+    }
+}
@@ -87,4 +87,31 @@ public class DirectionTest {
         assertEquals(WEST, NORTHWEST.rotateCounterClockwise());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void rotateNone() {
+        assertEquals(NONE, NONE.rotateClockwise());
+        assertEquals(NONE, NONE.rotateCounterClockwise());
+    }
+
+    @Test
+    public void opposite() {
+        assertEquals(SOUTH, NORTH.opposite());
+        assertEquals(NORTHEAST, SOUTHWEST.opposite());
+        assertEquals(WEST, EAST.opposite());
+        assertEquals(NONE, NONE.opposite());
+    }
+
+    @Test
+    public void originalRoundTrip() {
+        for (Direction direction : values()) {
+            assertEquals(direction.name(), direction.getOriginal().name());
+            assertEquals(direction, fromOriginal(direction.getOriginal()));
+        }
+    }
+
+    @Test
+    public void compassMatchesAll() {
+        assertArrayEquals(all().toArray(), compass());
+    }
+
+}
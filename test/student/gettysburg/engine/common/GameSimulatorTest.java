@@ -0,0 +1,104 @@
+package student.gettysburg.engine.common;
+
+import gettysburg.common.Coordinate;
+import gettysburg.common.Direction;
+import gettysburg.common.GbgUnit;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static gettysburg.common.GbgGameStatus.UNION_WINS;
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.BattlePolicy.makeResolveAllPolicy;
+import static student.gettysburg.engine.common.GameSimulator.makeGameSimulator;
+import static student.gettysburg.engine.common.RandomMovePolicy.makeRandomMovePolicy;
+
+public class GameSimulatorTest {
+
+    private static final MovePolicy STAND = new MovePolicy() {
+        @Override
+        public int chooseMove(Game game, GbgUnit unit, BitSet reachable) {
+            return -1;
+        }
+
+        @Override
+        public Direction chooseFacing(Game game, GbgUnit unit) {
+            return null;
+        }
+    };
+
+    @Test
+    public void simulateRandomGamesToTheTurnLimit() {
+        MovePolicy moves = makeRandomMovePolicy(new SplittableRandom(1));
+        SimulationResults results = makeGameSimulator(moves, makeResolveAllPolicy(), moves, makeResolveAllPolicy())
+                .simulate(3);
+
+        assertEquals(3, results.getGames());
+        assertEquals(3, results.getOutcomes(UNION_WINS));
+        assertTrue(results.getCasualties(UNION) + results.getCasualties(CONFEDERATE) > 0);
+    }
+
+    @Test
+    public void simulateStandingArmies() {
+        SimulationResults results = makeGameSimulator(STAND, makeResolveAllPolicy(), STAND, makeResolveAllPolicy())
+                .simulate(2);
+
+        assertEquals(2, results.getGames());
+        assertEquals(results.getMeanCasualties(UNION), results.getCasualties(UNION) / 2.0, 0);
+    }
+
+    @Test
+    public void moveOutsideReachIsIgnored() {
+        int[] ignoredMoves = {0};
+        MovePolicy corner = new MovePolicy() {
+            private Coordinate from;
+
+            @Override
+            public int chooseMove(Game game, GbgUnit unit, BitSet reachable) {
+                from = reachable.get(0) ? null : game.whereIsUnit(unit);
+                return 0;
+            }
+
+            @Override
+            public Direction chooseFacing(Game game, GbgUnit unit) {
+                // called right after the move, so an ignored move leaves the unit where it was
+                if (from != null) {
+                    assertEquals(from, game.whereIsUnit(unit));
+                    ignoredMoves[0]++;
+                }
+                return Direction.NORTH;
+            }
+        };
+        SimulationResults results = makeGameSimulator(corner, makeResolveAllPolicy(), STAND, makeResolveAllPolicy())
+                .simulate(1);
+
+        assertEquals(1, results.getGames());
+        assertTrue(ignoredMoves[0] > 0);
+    }
+
+    // SimulationResults
+
+    @Test
+    public void emptyResults() {
+        SimulationResults results = new SimulationResults();
+
+        assertEquals(0, results.getGames());
+        assertEquals(0, results.getMeanCasualties(UNION), 0);
+        assertEquals(0, results.getCasualtyVariance(UNION), 0);
+    }
+
+    @Test
+    public void casualtyMeanAndVariance() {
+        SimulationResults results = new SimulationResults();
+        results.record(UNION_WINS, 2, 1);
+        results.record(UNION_WINS, 4, 1);
+
+        assertEquals(3, results.getMeanCasualties(UNION), 0);
+        assertEquals(1, results.getCasualtyVariance(UNION), 0);
+        assertEquals(0, results.getCasualtyVariance(CONFEDERATE), 0);
+        assertEquals(2, results.getCasualties(CONFEDERATE));
+    }
+}
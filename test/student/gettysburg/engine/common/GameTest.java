@@ -2,6 +2,7 @@ package student.gettysburg.engine.common;
 
 import gettysburg.common.*;
 import gettysburg.common.exceptions.GbgInvalidActionException;
+import gettysburg.common.exceptions.GbgInvalidCoordinateException;
 import gettysburg.common.exceptions.GbgInvalidMoveException;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,6 +14,8 @@ import static gettysburg.common.ArmyID.UNION;
 import static gettysburg.common.BattleResult.*;
 import static gettysburg.common.Direction.*;
 import static gettysburg.common.GbgGameStep.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.*;
 import static student.gettysburg.engine.GettysburgFactory.makeCoordinate;
@@ -81,6 +84,24 @@ public class GameTest {
         assertEquals(EAST, game.getUnitFacing(HETH));
     }
 
+    @Test(expected = GbgInvalidActionException.class)
+    public void unitOnBoardCannotBeTurnedInPlace() {
+        game.getUnit(GAMBLE.getLeader(), UNION).setFacing(NORTH);
+    }
+
+    @Test
+    public void newGameDoesNotSeeTurnsInOtherGames() {
+        try {
+            game.getUnit(GAMBLE.getLeader(), UNION).setFacing(NORTH);
+        } catch (GbgInvalidActionException expected) {
+            // the unit is shared with the opening position
+        }
+        Game other = new Game();
+
+        assertEquals(WEST, other.getUnitFacing(GAMBLE));
+        assertEquals(WEST, other.getUnit(GAMBLE.getLeader(), UNION).getFacing());
+    }
+
     // getUnitsAt
 
     @Test
@@ -149,6 +170,85 @@ public class GameTest {
         assertEquals(to, game.whereIsUnit("A", UNION));
     }
 
+    // tryMoveUnit
+
+    @Test
+    public void tryMoveUnitOk() {
+        assertEquals(MoveStatus.OK, ((Game) game).tryMoveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12)));
+        assertEquals(makeCell(11, 12), game.whereIsUnit(GAMBLE));
+    }
+
+    @Test
+    public void tryMoveUnitRejections() {
+        Game game = (Game) this.game;
+        assertEquals(MoveStatus.WRONG_STEP, game.tryMoveUnit(HETH, makeCell(8, 8), makeCell(8, 9)));
+        assertEquals(MoveStatus.NOT_AT_FROM, game.tryMoveUnit(GAMBLE, makeCell(11, 12), makeCell(11, 13)));
+        assertEquals(MoveStatus.TOO_FAR, game.tryMoveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 16)));
+        assertEquals(MoveStatus.OCCUPIED, game.tryMoveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 11)));
+        assertEquals(makeCell(11, 11), game.whereIsUnit(GAMBLE));
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(12, 10));
+        assertEquals(MoveStatus.ALREADY_MOVED, game.tryMoveUnit(GAMBLE, makeCell(12, 10), makeCell(12, 11)));
+    }
+
+    @Test
+    public void tryMoveUnitOffBoard() {
+        Game game = (Game) this.game;
+        assertEquals(MoveStatus.OFF_BOARD, game.tryMoveUnit(GAMBLE, makeCell(11, 11), new Cell(11, 0)));
+        assertEquals(MoveStatus.OFF_BOARD, game.tryMoveUnit(GAMBLE, new Cell(0, 11), makeCell(11, 12)));
+        assertEquals(makeCell(11, 11), game.whereIsUnit(GAMBLE));
+    }
+
+    @Test(expected = GbgInvalidCoordinateException.class)
+    public void moveUnitOffBoardThrows() {
+        game.moveUnit(GAMBLE, makeCell(11, 11), new Cell(11, 0));
+    }
+
+    @Test
+    public void tryMoveUnitNoPath() {
+        GbgUnit unitA = makeUnit(UNION, 0, EAST, "A", 3, null, null);
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(makeUnit(CONFEDERATE, "B"), 7, 4, WEST);
+        testGame.putUnitAt(makeUnit(CONFEDERATE, "C"), 7, 7, WEST);
+
+        assertEquals(MoveStatus.NO_PATH, ((Game) game).tryMoveUnit(unitA, makeCell(5, 5), makeCell(8, 5)));
+    }
+
+    // trySetUnitFacing
+
+    @Test
+    public void trySetUnitFacing() {
+        Game game = (Game) this.game;
+        assertEquals(MoveStatus.WRONG_STEP, game.trySetUnitFacing(HETH, NORTH));
+        assertEquals(MoveStatus.NOT_ON_BOARD, game.trySetUnitFacing(makeUnit(UNION, "A"), NORTH));
+        assertEquals(MoveStatus.OK, game.trySetUnitFacing(DEVIN, NORTH));
+        assertEquals(MoveStatus.ALREADY_TURNED, game.trySetUnitFacing(DEVIN, EAST));
+        assertEquals(NORTH, game.getUnitFacing(DEVIN));
+    }
+
+    // getPossibleMoves
+
+    @Test
+    public void getPossibleMovesIncludesIndirectPath() {
+        GbgUnit unitA = makeUnit(UNION, 0, EAST, "A", 6, null, null);
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(makeUnit(CONFEDERATE, "B"), 7, 4, WEST);
+        testGame.putUnitAt(makeUnit(CONFEDERATE, "C"), 7, 7, WEST);
+
+        assertTrue(game.getPossibleMoves(unitA).contains(makeCoordinate(5, 8)));
+        assertFalse(game.getPossibleMoves(unitA).contains(makeCoordinate(7, 4)));
+    }
+
+    @Test
+    public void getPossibleMovesWhenNotTurn() {
+        assertTrue(game.getPossibleMoves(HETH).isEmpty());
+    }
+
+    @Test
+    public void getPossibleMovesAfterMoving() {
+        game.moveUnit(GAMBLE, makeCoordinate(11, 11), makeCoordinate(12, 10));
+        assertTrue(game.getPossibleMoves(GAMBLE).isEmpty());
+    }
+
     // setUnitFacing
 
     @Test
@@ -222,6 +322,41 @@ public class GameTest {
         assertEquals(battlesToResolve, game.getBattlesToResolve());
     }
 
+    @Test
+    public void getBattlesToResolveSplitsEngagements() {
+        GbgUnit unitA = makeUnit(UNION, "A");
+        GbgUnit unitB = makeUnit(UNION, "B");
+        GbgUnit unitC = makeUnit(CONFEDERATE, "C");
+        GbgUnit unitD = makeUnit(CONFEDERATE, "D");
+        testGame.clearBoard();
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(unitB, 10, 10, EAST);
+        testGame.putUnitAt(unitC, 6, 5, WEST);
+        testGame.putUnitAt(unitD, 11, 10, WEST);
+        testGame.setGameStep(UBATTLE);
+        Collection<BattleDescriptor> battlesToResolve = asList(
+                makeBattle(singletonList(unitA), singletonList(unitC)),
+                makeBattle(singletonList(unitB), singletonList(unitD))
+        );
+
+        assertEquals(battlesToResolve, game.getBattlesToResolve());
+    }
+
+    @Test(expected = GbgInvalidActionException.class)
+    public void resolveBattleAcrossEngagements() {
+        GbgUnit unitA = makeUnit(UNION, "A");
+        GbgUnit unitB = makeUnit(UNION, "B");
+        GbgUnit unitC = makeUnit(CONFEDERATE, "C");
+        GbgUnit unitD = makeUnit(CONFEDERATE, "D");
+        testGame.clearBoard();
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(unitB, 10, 10, EAST);
+        testGame.putUnitAt(unitC, 6, 5, WEST);
+        testGame.putUnitAt(unitD, 11, 10, WEST);
+        testGame.setGameStep(UBATTLE);
+        game.resolveBattle(makeBattle(singletonList(unitA), singletonList(unitD)));
+    }
+
     // endStep
 
     @Test(expected = GbgInvalidActionException.class)
@@ -236,6 +371,39 @@ public class GameTest {
         game.endStep();
     }
 
+    @Test
+    public void endStepAfterResolvingAllBattles() {
+        GbgUnit unitA = makeUnit(UNION, "A");
+        GbgUnit unitB = makeUnit(CONFEDERATE, "B");
+        testGame.clearBoard();
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(unitB, 6, 5, WEST);
+        testGame.setGameStep(UMOVE);
+        game.endStep();
+        testGame.setBattleResults(singletonList(DELIM));
+        game.resolveBattle(makeBattle(singletonList(unitA), singletonList(unitB)));
+
+        assertEquals(CMOVE, game.endStep());
+    }
+
+    @Test
+    public void endStepOnceEnemiesAreGone() {
+        GbgUnit unitA = makeUnit(UNION, "A");
+        GbgUnit unitB = makeUnit(CONFEDERATE, "B");
+        GbgUnit unitC = makeUnit(UNION, "C");
+        testGame.clearBoard();
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(unitB, 6, 5, WEST);
+        testGame.putUnitAt(unitC, 5, 6, EAST);
+        testGame.setGameStep(UMOVE);
+        game.endStep();
+        testGame.setBattleResults(singletonList(DELIM));
+        game.resolveBattle(makeBattle(singletonList(unitA), singletonList(unitB)));
+
+        assertTrue(game.getBattlesToResolve().isEmpty());
+        assertEquals(CMOVE, game.endStep());
+    }
+
     // resolveBattle
 
     @Test(expected = GbgInvalidActionException.class)
@@ -418,4 +586,299 @@ public class GameTest {
         assertEquals(makeCell(5, 7), game.whereIsUnit(unitD));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void newGamesDoNotShareUnits() {
+        Game other = new Game();
+        game.setUnitFacing(GAMBLE, NORTH);
+
+        assertEquals(WEST, other.getUnitFacing(GAMBLE));
+    }
+
+    // getStateHash
+
+    @Test
+    public void newGamesHaveSameStateHash() {
+        assertEquals(new Game().getStateHash(), ((Game) game).getStateHash());
+    }
+
+    @Test
+    public void getStateHashIgnoresMoveOrder() {
+        Game other = new Game();
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        game.moveUnit(DEVIN, makeCell(13, 9), makeCell(13, 10));
+        other.moveUnit(DEVIN, makeCell(13, 9), makeCell(13, 10));
+        other.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+
+        assertEquals(other.getStateHash(), ((Game) game).getStateHash());
+    }
+
+    @Test
+    public void getStateHashCountsMovedUnits() {
+        long hash = ((Game) game).getStateHash();
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        testGame.putUnitAt(GAMBLE, 11, 11, WEST);
+
+        assertNotEquals(hash, ((Game) game).getStateHash());
+    }
+
+    @Test
+    public void getStateHashChangesWithStep() {
+        long hash = ((Game) game).getStateHash();
+        game.endStep();
+
+        assertNotEquals(hash, ((Game) game).getStateHash());
+    }
+
+    @Test
+    public void resetRestoresStateHash() {
+        long hash = ((Game) game).getStateHash();
+        game.setUnitFacing(GAMBLE, NORTH);
+        game.endStep();
+        ((Game) game).reset();
+
+        assertEquals(hash, ((Game) game).getStateHash());
+    }
+
+    // generateActions
+
+    @Test
+    public void generateActionsMatchesPossibleMoves() {
+        Actions actions = new Actions();
+        game.setUnitFacing(DEVIN, NORTH);
+        ((Game) game).generateActions(actions);
+
+        int moves = 0;
+        int facings = 0;
+        for (int action = 0; action < actions.size(); action++) {
+            GbgUnit unit = actions.getUnit(action);
+            assertEquals(UNION, unit.getArmy());
+            if (actions.getKind(action) == Actions.MOVE) {
+                assertTrue(game.getPossibleMoves(unit).contains(actions.getTo(action)));
+                moves++;
+            } else {
+                assertEquals(Actions.FACE, actions.getKind(action));
+                assertNotEquals(DEVIN, unit);
+                facings++;
+            }
+        }
+        int unionUnits = 0;
+        int possibleMoves = 0;
+        for (Unit unit : ((Game) game).board.getUnits()) {
+            if (unit.getArmy() == UNION) {
+                unionUnits++;
+                possibleMoves += game.getPossibleMoves(unit).size();
+            }
+        }
+        assertEquals(possibleMoves, moves);
+        assertEquals(8 * (unionUnits - 1), facings);
+    }
+
+    @Test
+    public void generateActionsAreAccepted() {
+        Actions actions = new Actions();
+        Game game = (Game) this.game;
+        int checkpoint = game.checkpoint();
+        game.generateActions(actions);
+        for (int action = 0; action < actions.size(); action++) {
+            GbgUnit unit = actions.getUnit(action);
+            if (actions.getKind(action) == Actions.MOVE)
+                game.moveUnit(unit, game.whereIsUnit(unit), actions.getTo(action));
+            else
+                game.setUnitFacing(unit, actions.getFacing(action));
+            game.undo(checkpoint);
+            checkpoint = game.checkpoint();
+        }
+    }
+
+    @Test
+    public void generateActionsSkipsMovedUnits() {
+        Actions actions = new Actions();
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        ((Game) game).generateActions(actions);
+
+        for (int action = 0; action < actions.size(); action++)
+            assertFalse(actions.getKind(action) == Actions.MOVE && GAMBLE.equals(actions.getUnit(action)));
+    }
+
+    @Test
+    public void generateActionsForBattles() {
+        testGame.clearBoard();
+        testGame.setGameStep(UBATTLE);
+        GbgUnit unitA = makeUnit(UNION, "A");
+        GbgUnit unitB = makeUnit(CONFEDERATE, "B");
+        GbgUnit unitC = makeUnit(CONFEDERATE, "C");
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(unitB, 6, 5, WEST);
+        testGame.putUnitAt(unitC, 6, 6, NORTH);
+        Actions actions = new Actions();
+
+        assertEquals(3, ((Game) game).generateActions(actions));
+        assertEquals(asList(unitB, unitC), actions.getBattle(0).getDefenders());
+        assertEquals(singletonList(unitB), actions.getBattle(1).getDefenders());
+        assertEquals(singletonList(unitA), actions.getBattle(2).getAttackers());
+        game.resolveBattle(actions.getBattle(2));
+    }
+
+    // snapshot
+
+    @Test
+    public void restoreSnapshot() {
+        Game game = (Game) this.game;
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        GameSnapshot snapshot = game.snapshot();
+        game.setUnitFacing(GAMBLE, NORTH);
+        game.endStep();
+        game.restore(snapshot);
+
+        assertEquals(snapshot.getStateHash(), game.getStateHash());
+        assertEquals(UMOVE, game.getCurrentStep());
+        assertEquals(makeCell(11, 12), game.whereIsUnit(GAMBLE));
+        assertEquals(WEST, game.getUnitFacing(GAMBLE));
+        assertTrue(game.getPossibleMoves(GAMBLE).isEmpty());
+        game.setUnitFacing(GAMBLE, NORTH);
+    }
+
+    @Test
+    public void restoreSnapshotIntoOtherGame() {
+        testGame.clearBoard();
+        testGame.setGameStep(UBATTLE);
+        GbgUnit unitA = makeUnit(UNION, "A");
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(makeUnit(CONFEDERATE, "B"), 6, 5, WEST);
+        Game other = new Game();
+        other.restore(((Game) game).snapshot());
+
+        assertEquals(((Game) game).getStateHash(), other.getStateHash());
+        assertEquals(makeCell(5, 5), other.whereIsUnit(unitA));
+        assertNull(other.whereIsUnit(GAMBLE));
+        assertEquals(1, other.getBattlesToResolve().size());
+    }
+
+    @Test
+    public void restoredGamesDoNotShareUnits() {
+        GameSnapshot snapshot = ((Game) game).snapshot();
+        Game first = new Game();
+        Game second = new Game();
+        first.restore(snapshot);
+        second.restore(snapshot);
+        first.setUnitFacing(GAMBLE, NORTH);
+
+        assertEquals(WEST, second.getUnitFacing(GAMBLE));
+        assertEquals(WEST, second.getUnit(GAMBLE.getLeader(), UNION).getFacing());
+        first.restore(snapshot);
+        assertEquals(WEST, first.getUnitFacing(GAMBLE));
+    }
+
+    @Test(expected = GbgInvalidActionException.class)
+    public void restoredUnitsCannotBeTurnedInPlace() {
+        Game other = new Game();
+        other.restore(((Game) game).snapshot());
+
+        other.getUnit(GAMBLE.getLeader(), UNION).setFacing(NORTH);
+    }
+
+    @Test
+    public void snapshotIsUnchangedByGame() {
+        Game game = (Game) this.game;
+        GameSnapshot snapshot = game.snapshot();
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        Game other = new Game();
+        other.restore(snapshot);
+
+        assertEquals(new Game().getStateHash(), snapshot.getStateHash());
+        assertEquals(snapshot.getStateHash(), other.getStateHash());
+        assertEquals(makeCell(11, 11), other.whereIsUnit(GAMBLE));
+    }
+
+    // undo
+
+    @Test
+    public void undoMove() {
+        Game game = (Game) this.game;
+        long hash = game.getStateHash();
+        int checkpoint = game.checkpoint();
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        game.setUnitFacing(GAMBLE, NORTH);
+        game.undo(checkpoint);
+
+        assertEquals(hash, game.getStateHash());
+        assertEquals(makeCell(11, 11), game.whereIsUnit(GAMBLE));
+        assertEquals(WEST, game.getUnitFacing(GAMBLE));
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+    }
+
+    @Test
+    public void undoToInnerCheckpoint() {
+        Game game = (Game) this.game;
+        game.checkpoint();
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        long hash = game.getStateHash();
+        int checkpoint = game.checkpoint();
+        game.moveUnit(DEVIN, makeCell(13, 9), makeCell(13, 10));
+        game.undo(checkpoint);
+
+        assertEquals(hash, game.getStateHash());
+        assertEquals(makeCell(11, 12), game.whereIsUnit(GAMBLE));
+        assertEquals(makeCell(13, 9), game.whereIsUnit(DEVIN));
+    }
+
+    @Test
+    public void undoEndOfTurn() {
+        Game game = (Game) this.game;
+        long hash = game.getStateHash();
+        int checkpoint = game.checkpoint();
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        for (int step = 0; step < 5; step++) {
+            game.getBattlesToResolve().forEach(battle -> game.resolveBattle(battle));
+            game.endStep();
+        }
+        game.undo(checkpoint);
+
+        assertEquals(hash, game.getStateHash());
+        assertEquals(1, game.getTurnNumber());
+        assertEquals(UMOVE, game.getCurrentStep());
+        assertEquals(makeCell(11, 11), game.whereIsUnit(GAMBLE));
+    }
+
+    @Test
+    public void undoBattle() {
+        testGame.clearBoard();
+        testGame.setGameStep(UBATTLE);
+        GbgUnit unitA = makeUnit(UNION, "A");
+        GbgUnit unitB = makeUnit(CONFEDERATE, "B");
+        GbgUnit unitC = makeUnit(CONFEDERATE, "C");
+        testGame.putUnitAt(unitA, 5, 5, EAST);
+        testGame.putUnitAt(unitB, 6, 5, WEST);
+        testGame.putUnitAt(unitC, 6, 6, WEST);
+        Game game = (Game) this.game;
+        long hash = game.getStateHash();
+        int checkpoint = game.checkpoint();
+        testGame.setBattleResults(asList(DBACK, DELIM));
+        game.resolveBattle(makeBattle(singletonList(unitA), singletonList(unitB)));
+        game.resolveBattle(makeBattle(emptyList(), singletonList(unitC)));
+        game.undo(checkpoint);
+
+        assertEquals(hash, game.getStateHash());
+        assertEquals(makeCell(6, 5), game.whereIsUnit(unitB));
+        assertEquals(makeCell(6, 6), game.whereIsUnit(unitC));
+        assertEquals(WEST, game.getUnitFacing(unitC));
+        assertEquals(1, game.getBattlesToResolve().size());
+    }
+
+    // reset
+
+    @Test
+    public void resetRestoresOpeningPosition() {
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+        game.endStep();
+        game.endStep();
+        ((Game) game).reset();
+
+        assertEquals(1, game.getTurnNumber());
+        assertEquals(UMOVE, game.getCurrentStep());
+        assertEquals(makeCell(11, 11), game.whereIsUnit(GAMBLE));
+        assertEquals(WEST, game.getUnitFacing(GAMBLE));
+        game.moveUnit(GAMBLE, makeCell(11, 11), makeCell(11, 12));
+    }
+
+}
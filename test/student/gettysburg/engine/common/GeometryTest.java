@@ -0,0 +1,63 @@
+package student.gettysburg.engine.common;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static student.gettysburg.engine.common.Cell.makeCell;
+import static student.gettysburg.engine.common.Direction.*;
+
+public class GeometryTest {
+
+    // neighbors
+
+    @Test
+    public void neighborsInsideBoard() {
+        assertEquals(8, Geometry.neighbors(makeCell(5, 5).index()).length);
+    }
+
+    @Test
+    public void neighborsClippedAtCorner() {
+        Set<Cell> neighbors = new HashSet<>(asList(
+                makeCell(2, 1),
+                makeCell(1, 2),
+                makeCell(2, 2)
+        ));
+        assertEquals(neighbors, toCells(Geometry.neighbors(makeCell(1, 1).index())));
+    }
+
+    // zoneOfControl
+
+    @Test
+    public void zoneOfControlFacingEast() {
+        Set<Cell> zone = new HashSet<>(asList(
+                makeCell(6, 4),
+                makeCell(6, 5),
+                makeCell(6, 6)
+        ));
+        assertEquals(zone, toCells(Geometry.zoneOfControl(makeCell(5, 5).index(), EAST)));
+    }
+
+    @Test
+    public void zoneOfControlFacingNorthWestClippedAtEdge() {
+        Set<Cell> zone = new HashSet<>(asList(
+                makeCell(1, 4)
+        ));
+        assertEquals(zone, toCells(Geometry.zoneOfControl(makeCell(1, 5).index(), NORTHWEST)));
+    }
+
+    @Test
+    public void zoneOfControlFacingNone() {
+        Cell cell = makeCell(5, 5);
+        assertEquals(new HashSet<>(asList(cell)), toCells(Geometry.zoneOfControl(cell.index(), NONE)));
+    }
+
+    private Set<Cell> toCells(int[] indices) {
+        return Arrays.stream(indices).mapToObj(Cell::fromIndex).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,49 @@
+package student.gettysburg.engine.common;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static gettysburg.common.GbgGameStatus.UNION_WINS;
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.BattlePolicy.makeResolveAllPolicy;
+import static student.gettysburg.engine.common.GameSimulator.makeGameSimulator;
+import static student.gettysburg.engine.common.ParallelSimulator.GAMES_PER_SHARD;
+import static student.gettysburg.engine.common.ParallelSimulator.makeParallelSimulator;
+import static student.gettysburg.engine.common.RandomMovePolicy.makeRandomMovePolicy;
+import static student.gettysburg.engine.common.SplitMixDice.makeSplitMixDice;
+
+public class ParallelSimulatorTest {
+
+    private static final ParallelSimulator.SimulatorFactory RANDOM = random -> {
+        MovePolicy moves = makeRandomMovePolicy(random);
+        return makeGameSimulator(moves, makeResolveAllPolicy(), moves, makeResolveAllPolicy(),
+                makeSplitMixDice(random.nextLong()));
+    };
+
+    @Test
+    public void simulateNoGames() {
+        assertEquals(0, makeParallelSimulator(RANDOM).simulate(0, 1).getGames());
+    }
+
+    @Test
+    public void simulateCountsEveryShard() {
+        SimulationResults results = makeParallelSimulator(RANDOM).simulate(GAMES_PER_SHARD + 1, 1);
+
+        assertEquals(GAMES_PER_SHARD + 1, results.getGames());
+        assertEquals(GAMES_PER_SHARD + 1, results.getOutcomes(UNION_WINS));
+    }
+
+    @Test
+    public void simulateIsReproducibleAcrossPools() {
+        int games = GAMES_PER_SHARD + 2;
+        SimulationResults serial = makeParallelSimulator(RANDOM, new ForkJoinPool(1)).simulate(games, 7);
+        SimulationResults parallel = makeParallelSimulator(RANDOM, new ForkJoinPool(4)).simulate(games, 7);
+
+        assertEquals(serial.getCasualties(UNION), parallel.getCasualties(UNION));
+        assertEquals(serial.getCasualties(CONFEDERATE), parallel.getCasualties(CONFEDERATE));
+        assertEquals(serial.getCasualtyVariance(UNION), parallel.getCasualtyVariance(UNION), 0);
+    }
+}
@@ -10,8 +10,10 @@ import java.util.HashSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static gettysburg.common.ArmyID.CONFEDERATE;
 import static gettysburg.common.ArmyID.UNION;
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static student.gettysburg.engine.GettysburgFactory.makeCoordinate;
 import static student.gettysburg.engine.common.Reinforcements.makeReinforcements;
@@ -32,4 +34,41 @@ public class ReinforcementsTest {
         assertEquals(new HashSet<>(singletonList(unitInit)), new HashSet<>(units.collect(Collectors.toList())));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getTwice() {
+        UnitInitializer unitInit = new UnitInitializer(0, makeCoordinate(5, 5), makeUnit(UNION, ""));
+        Reinforcements reinforcements = makeReinforcements(Stream.of(unitInit));
+        reinforcements.get(UNION, 0).count();
+
+        assertEquals(1, reinforcements.get(UNION, 0).count());
+    }
+
+    @Test
+    public void getArrivalsInBattleOrder() {
+        UnitInitializer unitA = new UnitInitializer(2, makeCoordinate(5, 5), makeUnit(UNION, "A"));
+        UnitInitializer unitB = new UnitInitializer(2, makeCoordinate(6, 6), makeUnit(UNION, "B"));
+        UnitInitializer unitC = new UnitInitializer(2, makeCoordinate(7, 7), makeUnit(CONFEDERATE, "C"));
+        Reinforcements reinforcements = makeReinforcements(Stream.of(unitA, unitC, unitB));
+
+        assertArrayEquals(new UnitInitializer[]{unitA, unitB}, reinforcements.getArrivals(UNION, 2));
+        assertArrayEquals(new UnitInitializer[]{unitC}, reinforcements.getArrivals(CONFEDERATE, 2));
+    }
+
+    @Test
+    public void getArrivalsOutsideSchedule() {
+        UnitInitializer unitInit = new UnitInitializer(2, makeCoordinate(5, 5), makeUnit(UNION, "A"));
+        Reinforcements reinforcements = makeReinforcements(Stream.of(unitInit));
+
+        assertEquals(0, reinforcements.getArrivals(UNION, 1).length);
+        assertEquals(0, reinforcements.getArrivals(UNION, 3).length);
+        assertEquals(0, reinforcements.getArrivals(UNION, 50).length);
+    }
+
+    @Test
+    public void makeReinforcementsDoesNotRegisterUnits() {
+        GbgUnit unit = makeUnit(UNION, "ReinforcementsTest");
+        makeReinforcements(Stream.of(new UnitInitializer(1, makeCoordinate(5, 5), unit)));
+
+        assertEquals(-1, UnitIds.find(unit));
+    }
+}
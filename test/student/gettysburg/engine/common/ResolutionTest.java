@@ -16,7 +16,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.*;
 import static student.gettysburg.engine.common.Battle.makeBattle;
-import static student.gettysburg.engine.common.Resolution.dieFaceBattleResults;
+import static student.gettysburg.engine.common.CombatResultsTable.getResult;
 import static student.gettysburg.engine.common.Resolution.makeResolution;
 import static student.gettysburg.engine.common.Unit.makeUnit;
 
@@ -127,126 +127,140 @@ public class ResolutionTest {
         assertEquals(emptyList(), resolution.getEliminatedConfederateUnits());
     }
 
-    // dieFaceBattleResults
+    @Test
+    public void makeResolutionRollsDice() {
+        Collection<GbgUnit> attackingUnits = singletonList(
+                makeUnit(UNION, 3, EAST, "A", 0, null, null)
+        );
+        Collection<GbgUnit> defendingUnits = singletonList(
+                makeUnit(CONFEDERATE, 1, WEST, "B", 0, null, null)
+        );
+        Resolution resolution = makeResolution(makeBattle(attackingUnits, defendingUnits), () -> 6);
+
+        assertEquals(DELIM, resolution.getBattleResult());
+        assertEquals(defendingUnits, resolution.getEliminatedConfederateUnits());
+    }
+
+    // CombatResultsTable.getResult
 
     @Test
-    public void dieFaceBattleResults1AELIM() {
-        assertEquals(AELIM, dieFaceBattleResults.get(1).apply(0.0));
+    public void dieFace1AELIM() {
+        assertEquals(AELIM, getResult(1, 0.0));
     }
 
     @Test
-    public void dieFaceBattleResults1ABACK() {
-        assertEquals(ABACK, dieFaceBattleResults.get(1).apply(0.2));
+    public void dieFace1ABACK() {
+        assertEquals(ABACK, getResult(1, 0.2));
     }
 
     @Test
-    public void dieFaceBattleResults1DBACK() {
-        assertEquals(DBACK, dieFaceBattleResults.get(1).apply(0.333));
+    public void dieFace1DBACK() {
+        assertEquals(DBACK, getResult(1, 0.333));
     }
 
     @Test
-    public void dieFaceBattleResults1DELIM() {
-        assertEquals(DELIM, dieFaceBattleResults.get(1).apply(0.5));
+    public void dieFace1DELIM() {
+        assertEquals(DELIM, getResult(1, 0.5));
     }
 
     @Test
-    public void dieFaceBattleResults2AELIM() {
-        assertEquals(AELIM, dieFaceBattleResults.get(1).apply(0.0));
+    public void dieFace2AELIM() {
+        assertEquals(AELIM, getResult(1, 0.0));
     }
 
     @Test
-    public void dieFaceBattleResults2ABACK() {
-        assertEquals(ABACK, dieFaceBattleResults.get(1).apply(0.25));
+    public void dieFace2ABACK() {
+        assertEquals(ABACK, getResult(1, 0.25));
     }
 
     @Test
-    public void dieFaceBattleResults2EXCHANGE() {
-        assertEquals(EXCHANGE, dieFaceBattleResults.get(2).apply(0.333));
+    public void dieFace2EXCHANGE() {
+        assertEquals(EXCHANGE, getResult(2, 0.333));
     }
 
     @Test
-    public void dieFaceBattleResults2ABACK2() {
-        assertEquals(ABACK, dieFaceBattleResults.get(2).apply(1.0));
+    public void dieFace2ABACK2() {
+        assertEquals(ABACK, getResult(2, 1.0));
     }
 
     @Test
-    public void dieFaceBattleResults2EXCHANGE2() {
-        assertEquals(EXCHANGE, dieFaceBattleResults.get(2).apply(2.0));
+    public void dieFace2EXCHANGE2() {
+        assertEquals(EXCHANGE, getResult(2, 2.0));
     }
 
     @Test
-    public void dieFaceBattleResults2DBACK() {
-        assertEquals(DBACK, dieFaceBattleResults.get(2).apply(5.0));
+    public void dieFace2DBACK() {
+        assertEquals(DBACK, getResult(2, 5.0));
     }
 
     @Test
-    public void dieFaceBattleResults3AELIM() {
-        assertEquals(AELIM, dieFaceBattleResults.get(3).apply(0.0));
+    public void dieFace3AELIM() {
+        assertEquals(AELIM, getResult(3, 0.0));
     }
 
     @Test
-    public void dieFaceBattleResults3ABACK() {
-        assertEquals(ABACK, dieFaceBattleResults.get(3).apply(0.167));
+    public void dieFace3ABACK() {
+        assertEquals(ABACK, getResult(3, 0.167));
     }
 
     @Test
-    public void dieFaceBattleResults3DBACK() {
-        assertEquals(DBACK, dieFaceBattleResults.get(3).apply(0.5));
+    public void dieFace3DBACK() {
+        assertEquals(DBACK, getResult(3, 0.5));
     }
 
     @Test
-    public void dieFaceBattleResults3DELIM() {
-        assertEquals(DELIM, dieFaceBattleResults.get(3).apply(4.0));
+    public void dieFace3DELIM() {
+        assertEquals(DELIM, getResult(3, 4.0));
     }
 
     @Test
-    public void dieFaceBattleResults4AELIM() {
-        assertEquals(AELIM, dieFaceBattleResults.get(4).apply(0.0));
+    public void dieFace4AELIM() {
+        assertEquals(AELIM, getResult(4, 0.0));
     }
 
     @Test
-    public void dieFaceBattleResults4ABACK() {
-        assertEquals(ABACK, dieFaceBattleResults.get(4).apply(0.2));
+    public void dieFace4ABACK() {
+        assertEquals(ABACK, getResult(4, 0.2));
     }
 
     @Test
-    public void dieFaceBattleResults4DBACK() {
-        assertEquals(DBACK, dieFaceBattleResults.get(4).apply(3.0));
+    public void dieFace4DBACK() {
+        assertEquals(DBACK, getResult(4, 3.0));
     }
 
     @Test
-    public void dieFaceBattleResults4DELIM() {
-        assertEquals(DELIM, dieFaceBattleResults.get(4).apply(6.0));
+    public void dieFace4DELIM() {
+        assertEquals(DELIM, getResult(4, 6.0));
     }
 
     @Test
-    public void dieFaceBattleResults5AELIM() {
-        assertEquals(AELIM, dieFaceBattleResults.get(5).apply(0.0));
+    public void dieFace5AELIM() {
+        assertEquals(AELIM, getResult(5, 0.0));
     }
 
     @Test
-    public void dieFaceBattleResults5EXCHANGE() {
-        assertEquals(EXCHANGE, dieFaceBattleResults.get(5).apply(1.0));
+    public void dieFace5EXCHANGE() {
+        assertEquals(EXCHANGE, getResult(5, 1.0));
     }
 
     @Test
-    public void dieFaceBattleResults5DBACK() {
-        assertEquals(DBACK, dieFaceBattleResults.get(5).apply(4.0));
+    public void dieFace5DBACK() {
+        assertEquals(DBACK, getResult(5, 4.0));
     }
 
     @Test
-    public void dieFaceBattleResults5DELIM() {
-        assertEquals(DELIM, dieFaceBattleResults.get(5).apply(5.0));
+    public void dieFace5DELIM() {
+        assertEquals(DELIM, getResult(5, 5.0));
     }
 
     @Test
-    public void dieFaceBattleResults6AELIM() {
-        assertEquals(AELIM, dieFaceBattleResults.get(6).apply(0.0));
+    public void dieFace6AELIM() {
+        assertEquals(AELIM, getResult(6, 0.0));
     }
 
     @Test
-    public void dieFaceBattleResults6DELIM() {
-        assertEquals(DELIM, dieFaceBattleResults.get(6).apply(3.0));
+    public void dieFace6DELIM() {
+        assertEquals(DELIM, getResult(6, 3.0));
     }
 
     // isRetreat
@@ -0,0 +1,51 @@
+package student.gettysburg.engine.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.SplitMixDice.makeSplitMixDice;
+
+public class SplitMixDiceTest {
+
+    @Test
+    public void nextLongMatchesSplitMix64() {
+        SplitMixDice dice = makeSplitMixDice(0);
+
+        assertEquals(0xE220A8397B1DCDAFL, dice.nextLong());
+        assertEquals(0x6E789E6AA1B965F4L, dice.nextLong());
+    }
+
+    @Test
+    public void sameSeedReplaysRolls() {
+        SplitMixDice dice = makeSplitMixDice(42);
+        SplitMixDice replay = makeSplitMixDice(42);
+
+        for (int i = 0; i < 1000; i++)
+            assertEquals(dice.roll(), replay.roll());
+    }
+
+    @Test
+    public void splitRollsDiffer() {
+        SplitMixDice dice = makeSplitMixDice(42);
+        SplitMixDice split = dice.split();
+
+        int same = 0;
+        for (int i = 0; i < 600; i++) {
+            if (dice.roll() == split.roll())
+                same++;
+        }
+        assertTrue(same < 200);
+    }
+
+    @Test
+    public void rollsAreFairFaces() {
+        SplitMixDice dice = makeSplitMixDice(1);
+        int[] counts = new int[7];
+        for (int i = 0; i < 60000; i++)
+            counts[dice.roll()]++;
+
+        assertEquals(0, counts[0]);
+        for (int face = 1; face <= 6; face++)
+            assertEquals(10000, counts[face], 500);
+    }
+}
@@ -37,7 +37,7 @@ public class TestGame extends Game implements TestGbgGame {
 	@Override
 	public void putUnitAt(GbgUnit unit, int x, int y, gettysburg.common.Direction facing) {
 		board.moveUnit(makeUnit(unit), makeCell(x, y));
-		board.getUnit(unit).setFacing(facing);
+		board.setUnitFacing(unit, facing);
 	}
 
 	@Override
@@ -0,0 +1,58 @@
+package student.gettysburg.engine.common;
+
+import org.junit.Test;
+
+import static gettysburg.common.ArmyID.CONFEDERATE;
+import static gettysburg.common.ArmyID.UNION;
+import static org.junit.Assert.*;
+import static student.gettysburg.engine.common.Unit.makeUnit;
+import static student.gettysburg.engine.utility.configure.BattleOrder.getBattleOrder;
+
+public class UnitIdsTest {
+
+    @Test
+    public void sameArmyAndLeaderShareId() {
+        int id = UnitIds.register(UNION, "UnitIdsTest");
+
+        assertEquals(id, makeUnit(UNION, "UnitIdsTest").getId());
+        assertEquals(id, makeUnit(UNION, "UnitIdsTest").register());
+    }
+
+    @Test
+    public void armiesHaveOwnIds() {
+        assertNotEquals(UnitIds.register(UNION, "UnitIdsTest"), UnitIds.register(CONFEDERATE, "UnitIdsTest"));
+    }
+
+    @Test
+    public void missingLeaderHasOwnId() {
+        assertNotEquals(UnitIds.register(UNION, ""), UnitIds.register(UNION, null));
+        assertEquals(UnitIds.register(UNION, null), UnitIds.find(UNION, null));
+    }
+
+    @Test
+    public void findDoesNotRegister() {
+        Game game = new Game();
+        int count = UnitIds.count();
+
+        assertEquals(-1, UnitIds.find(UNION, "UnitIdsTest unknown"));
+        assertEquals(-1, makeUnit(UNION, "UnitIdsTest unknown").getId());
+        assertNull(game.whereIsUnit("UnitIdsTest unknown", UNION));
+        assertEquals(count, UnitIds.count());
+    }
+
+    @Test
+    public void orderOfBattleTakesFirstIds() {
+        Scenario.getStandardScenario();
+        long units = getBattleOrder().count();
+
+        getBattleOrder().forEach(unit -> assertTrue(UnitIds.find(unit.getUnit()) < units));
+    }
+
+    @Test
+    public void copiesKeepId() {
+        Unit unit = makeUnit(UNION, "UnitIdsTest");
+        unit.register();
+
+        assertEquals(unit.getId(), unit.withFacing(Direction.EAST).getId());
+    }
+}